@@ -0,0 +1,118 @@
+package com.example;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class AvailabilityCache implements BookingListener {
+    private final int maxEntries;
+    private final Map<Window, List<Room>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    // Ökas vid varje invalidering så att ett svar som räknades fram under tiden inte sparas
+    private long generation;
+
+    public record Window(LocalDateTime startTime, LocalDateTime endTime) {
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            return !endTime.isBefore(start) && !startTime.isAfter(end);
+        }
+    }
+
+    public record Stats(long hits, long misses, long invalidations, int size) {
+    }
+
+    public AvailabilityCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cachen måste rymma minst en post");
+        }
+        this.maxEntries = maxEntries;
+        // Åtkomstordning gör att den minst nyligen använda posten ligger först och tas bort vid fullt
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Window, List<Room>> eldest) {
+                return size() > AvailabilityCache.this.maxEntries;
+            }
+        };
+    }
+
+    public List<Room> get(LocalDateTime startTime, LocalDateTime endTime, Supplier<List<Room>> loader) {
+        Window window = new Window(startTime, endTime);
+        long loadedAt;
+
+        synchronized (this) {
+            List<Room> cached = entries.get(window);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            loadedAt = generation;
+        }
+
+        misses.increment();
+        // Räknas fram utanför låset så att långsamma frågor inte blockerar träffar på andra fönster
+        List<Room> rooms = List.copyOf(loader.get());
+
+        synchronized (this) {
+            if (generation == loadedAt) {
+                entries.put(window, rooms);
+            }
+        }
+        return rooms;
+    }
+
+    // Tar bara bort de fönster som överlappar ändringen, övriga svar är fortfarande giltiga
+    public synchronized void invalidate(LocalDateTime startTime, LocalDateTime endTime) {
+        generation++;
+        for (Iterator<Window> it = entries.keySet().iterator(); it.hasNext(); ) {
+            if (it.next().overlaps(startTime, endTime)) {
+                it.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), invalidations.sum(), entries.size());
+    }
+
+    @Override
+    public void bookingCreated(Booking booking) {
+        invalidate(booking.getStartTime(), booking.getEndTime());
+    }
+
+    @Override
+    public void bookingCancelled(Booking booking) {
+        invalidate(booking.getStartTime(), booking.getEndTime());
+    }
+
+    @Override
+    public void recurringBookingCreated(RecurringBooking series) {
+        invalidate(series.getFirstStart(), series.getLastEnd());
+    }
+
+    @Override
+    public void recurringBookingCancelled(RecurringBooking series) {
+        invalidate(series.getFirstStart(), series.getLastEnd());
+    }
+
+    @Override
+    public void holdPlaced(Booking booking) {
+        invalidate(booking.getStartTime(), booking.getEndTime());
+    }
+
+    @Override
+    public void holdReleased(Booking booking) {
+        invalidate(booking.getStartTime(), booking.getEndTime());
+    }
+}
@@ -0,0 +1,6 @@
+package com.example;
+
+@FunctionalInterface
+public interface BookingIdGenerator {
+    String nextId();
+}
@@ -0,0 +1,178 @@
+package com.example;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Oföränderlig ögonblicksbild av ett rums bokningar. Varje skrivning skapar en ny version,
+// så läsare kan använda en instans utan lås medan andra trådar skriver
+public final class BookingIndex {
+    static final BookingIndex EMPTY = new BookingIndex(new Booking[0], new LocalDateTime[0], Map.of());
+
+    private static final Comparator<Booking> BY_START =
+            Comparator.comparing(Booking::getStartTime).thenComparing(Booking::getId);
+
+    // Sorterade på starttid, latestEnds[i] är den senaste sluttiden bland bookings[0..i]
+    private final Booking[] bookings;
+    private final LocalDateTime[] latestEnds;
+    private final Map<String, RecurringBooking> recurringBookings;
+
+    private BookingIndex(Booking[] bookings, LocalDateTime[] latestEnds,
+                         Map<String, RecurringBooking> recurringBookings) {
+        this.bookings = bookings;
+        this.latestEnds = latestEnds;
+        this.recurringBookings = recurringBookings;
+    }
+
+    // Bygger indexet i ett svep, t.ex. vid inläsning av många bokningar på en gång
+    public static BookingIndex of(Collection<Booking> bookings, Collection<RecurringBooking> recurringBookings) {
+        Booking[] sorted = bookings.toArray(new Booking[0]);
+        Arrays.sort(sorted, BY_START);
+        Map<String, RecurringBooking> series = new LinkedHashMap<>();
+        recurringBookings.forEach(s -> series.put(s.getId(), s));
+        return new BookingIndex(sorted, latestEnds(sorted, new LocalDateTime[sorted.length], 0),
+                Collections.unmodifiableMap(series));
+    }
+
+    public boolean isAvailable(LocalDateTime startTime, LocalDateTime endTime) {
+        // Alla bokningar som startar senast vid endTime ligger före index, räcker att någon av dem slutar efter startTime
+        int startedBefore = upperBound(endTime);
+        if (startedBefore > 0 && !latestEnds[startedBefore - 1].isBefore(startTime)) {
+            return false;
+        }
+
+        return recurringBookings.values().stream()
+                .noneMatch(series -> series.overlaps(startTime, endTime));
+    }
+
+    public List<LocalDateTime> findConflicts(RecurringBooking candidate) {
+        List<LocalDateTime> conflicts = new ArrayList<>();
+        int passed = 0;
+
+        // Både tillfällena och bokningarna är sorterade på starttid, så pekaren behöver aldrig backa
+        for (Iterator<Booking> it = candidate.occurrences().iterator(); it.hasNext(); ) {
+            Booking occurrence = it.next();
+
+            while (passed < bookings.length && !bookings[passed].getStartTime().isAfter(occurrence.getEndTime())) {
+                passed++;
+            }
+
+            boolean conflictsWithBooking = passed > 0 && !latestEnds[passed - 1].isBefore(occurrence.getStartTime());
+            if (conflictsWithBooking || conflictsWithSeries(occurrence)) {
+                conflicts.add(occurrence.getStartTime());
+            }
+        }
+        return conflicts;
+    }
+
+    private boolean conflictsWithSeries(Booking occurrence) {
+        return recurringBookings.values().stream()
+                .anyMatch(series -> series.overlaps(occurrence.getStartTime(), occurrence.getEndTime()));
+    }
+
+    public BookingIndex withBooking(Booking booking) {
+        int position = Arrays.binarySearch(bookings, booking, BY_START);
+        if (position >= 0) {
+            return this;
+        }
+        position = -position - 1;
+
+        Booking[] updated = new Booking[bookings.length + 1];
+        System.arraycopy(bookings, 0, updated, 0, position);
+        updated[position] = booking;
+        System.arraycopy(bookings, position, updated, position + 1, bookings.length - position);
+
+        LocalDateTime[] ends = new LocalDateTime[updated.length];
+        System.arraycopy(latestEnds, 0, ends, 0, position);
+        return new BookingIndex(updated, latestEnds(updated, ends, position), recurringBookings);
+    }
+
+    public BookingIndex withoutBooking(String bookingId) {
+        int position = indexOf(bookingId);
+        if (position < 0) {
+            return this;
+        }
+
+        Booking[] updated = new Booking[bookings.length - 1];
+        System.arraycopy(bookings, 0, updated, 0, position);
+        System.arraycopy(bookings, position + 1, updated, position, updated.length - position);
+
+        LocalDateTime[] ends = new LocalDateTime[updated.length];
+        System.arraycopy(latestEnds, 0, ends, 0, position);
+        return new BookingIndex(updated, latestEnds(updated, ends, position), recurringBookings);
+    }
+
+    public BookingIndex withRecurringBooking(RecurringBooking series) {
+        Map<String, RecurringBooking> updated = new LinkedHashMap<>(recurringBookings);
+        updated.put(series.getId(), series);
+        return new BookingIndex(bookings, latestEnds, Collections.unmodifiableMap(updated));
+    }
+
+    public BookingIndex withoutRecurringBooking(String seriesId) {
+        if (!recurringBookings.containsKey(seriesId)) {
+            return this;
+        }
+        Map<String, RecurringBooking> updated = new LinkedHashMap<>(recurringBookings);
+        updated.remove(seriesId);
+        return new BookingIndex(bookings, latestEnds, Collections.unmodifiableMap(updated));
+    }
+
+    public Optional<Booking> findBooking(String bookingId) {
+        int position = indexOf(bookingId);
+        return position >= 0 ? Optional.of(bookings[position]) : Optional.empty();
+    }
+
+    public Optional<RecurringBooking> findRecurringBooking(String seriesId) {
+        return Optional.ofNullable(recurringBookings.get(seriesId));
+    }
+
+    public List<Booking> getBookings() {
+        return Collections.unmodifiableList(Arrays.asList(bookings));
+    }
+
+    public Collection<RecurringBooking> getRecurringBookings() {
+        return recurringBookings.values();
+    }
+
+    private int indexOf(String bookingId) {
+        for (int i = 0; i < bookings.length; i++) {
+            if (bookings[i].getId().equals(bookingId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Antal bokningar med starttid före eller lika med time
+    private int upperBound(LocalDateTime time) {
+        int low = 0;
+        int high = bookings.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bookings[mid].getStartTime().isAfter(time)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static LocalDateTime[] latestEnds(Booking[] bookings, LocalDateTime[] ends, int from) {
+        LocalDateTime latest = from > 0 ? ends[from - 1] : null;
+        for (int i = from; i < bookings.length; i++) {
+            LocalDateTime end = bookings[i].getEndTime();
+            latest = latest == null || end.isAfter(latest) ? end : latest;
+            ends[i] = latest;
+        }
+        return ends;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example;
+
+// Anropas av BookingSystem efter att en ändring har sparats
+public interface BookingListener {
+    default void bookingCreated(Booking booking) {
+    }
+
+    // Även ett enskilt avbokat tillfälle i en serie rapporteras här
+    default void bookingCancelled(Booking booking) {
+    }
+
+    default void recurringBookingCreated(RecurringBooking series) {
+    }
+
+    default void recurringBookingCancelled(RecurringBooking series) {
+    }
+
+    // En hold blockerar tiden men räknas inte som bokning förrän den bekräftas, då anropas bookingCreated
+    default void holdPlaced(Booking booking) {
+    }
+
+    // Anropas både när en hold släpps och när den går ut
+    default void holdReleased(Booking booking) {
+    }
+}
@@ -1,13 +1,47 @@
 package com.example;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class BookingSystem {
+    // Varje instans som skriver mot samma databas måste ha ett eget nod-id, t.ex. -Dbooking.nodeId=3,
+    // annars kan två instanser dela ut samma sorterbara id. Utan nod-id används slumpade UUID:n
+    public static final String NODE_ID_PROPERTY = "booking.nodeId";
+    // Delas av alla instanser i samma JVM så att de inte delar ut samma id
+    private static final BookingIdGenerator DEFAULT_ID_GENERATOR = defaultIdGenerator();
+
     private final TimeProvider timeProvider;
     private final RoomRepository roomRepository;
     private final NotificationService notificationService;
+    private BookingIdGenerator bookingIdGenerator = DEFAULT_ID_GENERATOR;
+    private final List<BookingListener> listeners = new CopyOnWriteArrayList<>();
+    private AvailabilityCache availabilityCache;
+
+    // Holds går ut via ett tidshjul, så att hitta utgångna holds kräver inte att alla gås igenom
+    private static final long HOLD_TICK_MILLIS = 1000;
+    private static final int HOLD_WHEEL_SIZE = 512;
+    private final Object holdLock = new Object();
+    private final Map<String, HoldEntry> holds = new HashMap<>();
+    // Holds sparas aldrig i rummen, så en omstart kan inte göra dem till bokningar. De hålls här
+    // per rum och kontrolleras tillsammans med rummets egna bokningar. Läsare tar inget lås
+    private final Map<String, BookingIndex> heldByRoom = new ConcurrentHashMap<>();
+    private TimingWheel<String> holdTimers;
+    private ScheduledExecutorService holdExpiry;
+
+    private record HoldEntry(Hold hold, TimingWheel.Timeout<String> timer) {
+    }
 
     public BookingSystem(TimeProvider timeProvider,
                          RoomRepository roomRepository,
@@ -17,6 +51,37 @@ public class BookingSystem {
         this.notificationService = notificationService;
     }
 
+    private static BookingIdGenerator defaultIdGenerator() {
+        String nodeId = System.getProperty(NODE_ID_PROPERTY);
+        if (nodeId == null) {
+            return () -> UUID.randomUUID().toString();
+        }
+        try {
+            return new SortableBookingIdGenerator(Integer.parseInt(nodeId.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ogiltigt nod-id i " + NODE_ID_PROPERTY + ": " + nodeId, e);
+        }
+    }
+
+    public void setBookingIdGenerator(BookingIdGenerator bookingIdGenerator) {
+        if (bookingIdGenerator == null) {
+            throw new IllegalArgumentException("Id-generator kan inte vara null");
+        }
+        this.bookingIdGenerator = bookingIdGenerator;
+    }
+
+    public void addBookingListener(BookingListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Lyssnare kan inte vara null");
+        }
+        listeners.add(listener);
+    }
+
+    // Cachen invalideras före övriga lyssnare när bokningar läggs till eller tas bort
+    public void setAvailabilityCache(AvailabilityCache availabilityCache) {
+        this.availabilityCache = availabilityCache;
+    }
+
     public boolean bookRoom(String roomId, LocalDateTime startTime, LocalDateTime endTime) {
         if (startTime == null || endTime == null || roomId == null) {
             throw new IllegalArgumentException("Bokning kräver giltiga start- och sluttider samt rum-id");
@@ -33,13 +98,203 @@ public class BookingSystem {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new IllegalArgumentException("Rummet existerar inte"));
 
-        if (!room.isAvailable(startTime, endTime)) {
+        Booking booking;
+
+        // Skrivare till samma rum turas om så att kontroll och bokning sker atomärt,
+        // läsare påverkas inte eftersom de läser rummets ögonblicksbild
+        synchronized (room) {
+            if (!isFree(room, startTime, endTime)) {
+                return false;
+            }
+
+            booking = new Booking(bookingIdGenerator.nextId(), roomId, startTime, endTime);
+            room.addBooking(booking);
+            roomRepository.save(room);
+        }
+
+        notifyListeners(listener -> listener.bookingCreated(booking));
+
+        try {
+            notificationService.sendBookingConfirmation(booking);
+        } catch (NotificationException e) {
+            // Fortsätt även om notifieringen misslyckas
+        }
+
+        return true;
+    }
+
+    // Bokar alla rum för samma tid eller inget av dem
+    public boolean bookRooms(List<String> roomIds, LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null || roomIds == null || roomIds.isEmpty() || roomIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Bokning kräver giltiga start- och sluttider samt rum-id");
+        }
+
+        if (startTime.isBefore(timeProvider.getCurrentTime())) {
+            throw new IllegalArgumentException("Kan inte boka tid i dåtid");
+        }
+
+        if (endTime.isBefore(startTime)) {
+            throw new IllegalArgumentException("Sluttid måste vara efter starttid");
+        }
+
+        // Rummen låses alltid i rum-id-ordning så att två gruppbokningar med överlappande
+        // rum inte kan vänta på varandra i cirkel
+        List<Room> rooms = new ArrayList<>();
+        for (String roomId : new TreeSet<>(roomIds)) {
+            rooms.add(roomRepository.findById(roomId)
+                    .orElseThrow(() -> new IllegalArgumentException("Rummet existerar inte")));
+        }
+
+        List<Booking> bookings = new ArrayList<>();
+        boolean booked = withRoomsLocked(rooms, 0, () -> {
+            for (Room room : rooms) {
+                if (!isFree(room, startTime, endTime)) {
+                    return false;
+                }
+            }
+
+            for (Room room : rooms) {
+                Booking booking = new Booking(bookingIdGenerator.nextId(), room.getId(), startTime, endTime);
+                room.addBooking(booking);
+                bookings.add(booking);
+            }
+
+            try {
+                roomRepository.saveAll(rooms);
+            } catch (RuntimeException e) {
+                // Ångra i minnet så att rummen inte ser bokade ut när sparandet misslyckades
+                for (int i = 0; i < bookings.size(); i++) {
+                    rooms.get(i).removeBooking(bookings.get(i).getId());
+                }
+                throw e;
+            }
+            return true;
+        });
+
+        if (!booked) {
+            return false;
+        }
+
+        bookings.forEach(booking -> notifyListeners(listener -> listener.bookingCreated(booking)));
+
+        try {
+            notificationService.sendGroupBookingConfirmation(List.copyOf(bookings));
+        } catch (NotificationException e) {
+            // Fortsätt även om notifieringen misslyckas
+        }
+
+        return true;
+    }
+
+    private boolean withRoomsLocked(List<Room> rooms, int index, BooleanSupplier action) {
+        if (index == rooms.size()) {
+            return action.getAsBoolean();
+        }
+
+        synchronized (rooms.get(index)) {
+            return withRoomsLocked(rooms, index + 1, action);
+        }
+    }
+
+    // Blockerar tiden utan att boka den, t.ex. medan betalningen pågår. Holden måste bekräftas
+    // med confirmHold innan ttl har gått ut, annars släpps den av expireHolds. Holden finns bara
+    // i minnet och skrivs inte till rumsregistret förrän den bekräftas
+    public Optional<Hold> placeHold(String roomId, LocalDateTime startTime, LocalDateTime endTime, Duration ttl) {
+        if (startTime == null || endTime == null || roomId == null) {
+            throw new IllegalArgumentException("Bokning kräver giltiga start- och sluttider samt rum-id");
+        }
+
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Hålltiden måste vara positiv");
+        }
+
+        LocalDateTime now = timeProvider.getCurrentTime();
+
+        if (startTime.isBefore(now)) {
+            throw new IllegalArgumentException("Kan inte boka tid i dåtid");
+        }
+
+        if (endTime.isBefore(startTime)) {
+            throw new IllegalArgumentException("Sluttid måste vara efter starttid");
+        }
+
+        Room room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Rummet existerar inte"));
+
+        Hold hold;
+
+        // Rummets lås gör kontrollen och registreringen atomär mot bokningar i samma rum
+        synchronized (room) {
+            if (!isFree(room, startTime, endTime)) {
+                return Optional.empty();
+            }
+
+            hold = new Hold(new Booking(bookingIdGenerator.nextId(), roomId, startTime, endTime), now.plus(ttl));
+
+            synchronized (holdLock) {
+                if (holdTimers == null) {
+                    holdTimers = new TimingWheel<>(HOLD_TICK_MILLIS, HOLD_WHEEL_SIZE, toMillis(now));
+                }
+                holds.put(hold.id(), new HoldEntry(hold, holdTimers.schedule(hold.id(), deadlineMillis(hold.expiresAt()))));
+                heldByRoom.compute(roomId, (id, held) ->
+                        (held == null ? BookingIndex.EMPTY : held).withBooking(hold.booking()));
+            }
+        }
+
+        Booking booking = hold.booking();
+        notifyListeners(listener -> listener.holdPlaced(booking));
+
+        return Optional.of(hold);
+    }
+
+    // Gör holden till en vanlig bokning. Returnerar false om den inte finns eller redan har gått ut
+    public boolean confirmHold(String holdId) {
+        if (holdId == null) {
+            throw new IllegalArgumentException("Hold-id kan inte vara null");
+        }
+
+        HoldEntry entry;
+        synchronized (holdLock) {
+            entry = holds.get(holdId);
+        }
+        if (entry == null) {
+            return false;
+        }
+
+        Booking booking = entry.hold().booking();
+        Room room = roomRepository.findById(booking.getRoomId())
+                .orElseThrow(() -> new IllegalArgumentException("Rummet existerar inte"));
+        boolean expired;
+
+        // Bokningen läggs i rummet innan holden tas bort, så att tiden aldrig ser ledig ut däremellan
+        synchronized (room) {
+            synchronized (holdLock) {
+                if (holds.remove(holdId) == null) {
+                    return false;
+                }
+                entry.timer().cancel();
+                expired = !timeProvider.getCurrentTime().isBefore(entry.hold().expiresAt());
+            }
+
+            if (!expired) {
+                room.addBooking(booking);
+                try {
+                    roomRepository.save(room);
+                } catch (RuntimeException e) {
+                    room.removeBooking(booking.getId());
+                    unhold(booking);
+                    throw e;
+                }
+            }
+            unhold(booking);
+        }
+
+        if (expired) {
+            notifyListeners(listener -> listener.holdReleased(booking));
             return false;
         }
 
-        Booking booking = new Booking(UUID.randomUUID().toString(), roomId, startTime, endTime);
-        room.addBooking(booking);
-        roomRepository.save(room);
+        notifyListeners(listener -> listener.bookingCreated(booking));
 
         try {
             notificationService.sendBookingConfirmation(booking);
@@ -50,25 +305,277 @@ public class BookingSystem {
         return true;
     }
 
-        public List<Room> getAvailableRooms(LocalDateTime startTime, LocalDateTime endTime) {
-            if (startTime == null || endTime == null) {
-                throw new IllegalArgumentException("Måste ange både start- och sluttid");
+    public boolean releaseHold(String holdId) {
+        if (holdId == null) {
+            throw new IllegalArgumentException("Hold-id kan inte vara null");
+        }
+
+        HoldEntry entry;
+
+        synchronized (holdLock) {
+            entry = holds.remove(holdId);
+            if (entry == null) {
+                return false;
+            }
+            entry.timer().cancel();
+        }
+
+        release(entry.hold().booking());
+        return true;
+    }
+
+    // Släpper holds vars tid har gått ut och returnerar hur många de var. Tänkt att anropas
+    // regelbundet från en enda schemalagd uppgift, se startHoldExpiry. En hold släpps aldrig före
+    // expiresAt, samma gräns som confirmHold använder
+    public int expireHolds() {
+        List<Booking> expired = new ArrayList<>();
+
+        synchronized (holdLock) {
+            if (holdTimers == null) {
+                return 0;
+            }
+            for (String holdId : holdTimers.advanceTo(toMillis(timeProvider.getCurrentTime()))) {
+                HoldEntry entry = holds.remove(holdId);
+                if (entry != null) {
+                    expired.add(entry.hold().booking());
+                }
+            }
+        }
+
+        expired.forEach(this::release);
+        return expired.size();
+    }
+
+    // Kör expireHolds med jämna mellanrum på en egen daemontråd. En hold kan bli kvar upp till ett
+    // intervall efter expiresAt, men går inte att bekräfta under tiden
+    public synchronized void startHoldExpiry(Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Intervallet måste vara positivt");
+        }
+        if (holdExpiry != null) {
+            throw new IllegalStateException("Utgången av holds är redan startad");
+        }
+
+        holdExpiry = Executors.newSingleThreadScheduledExecutor(
+                task -> Thread.ofPlatform().daemon().name("hold-expiry").unstarted(task));
+        holdExpiry.scheduleWithFixedDelay(this::expireHoldsQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopHoldExpiry() {
+        if (holdExpiry != null) {
+            holdExpiry.shutdownNow();
+            holdExpiry = null;
+        }
+    }
+
+    // Ett undantag får inte stoppa schemat, nästa körning försöker igen
+    private void expireHoldsQuietly() {
+        try {
+            expireHolds();
+        } catch (RuntimeException e) {
+            // Ignoreras, t.ex. om registret tillfälligt inte svarar
+        }
+    }
+
+    public int getHoldCount() {
+        synchronized (holdLock) {
+            return holds.size();
+        }
+    }
+
+    private boolean isHeld(String bookingId) {
+        synchronized (holdLock) {
+            return holds.containsKey(bookingId);
+        }
+    }
+
+    private void release(Booking booking) {
+        unhold(booking);
+        notifyListeners(listener -> listener.holdReleased(booking));
+    }
+
+    private void unhold(Booking booking) {
+        heldByRoom.computeIfPresent(booking.getRoomId(), (roomId, held) -> {
+            BookingIndex remaining = held.withoutBooking(booking.getId());
+            return remaining.getBookings().isEmpty() ? null : remaining;
+        });
+    }
+
+    // Ledig enligt både rummets bokningar och de holds som ligger på rummet
+    private boolean isFree(Room room, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!room.isAvailable(startTime, endTime)) {
+            return false;
+        }
+        BookingIndex held = heldByRoom.isEmpty() ? null : heldByRoom.get(room.getId());
+        return held == null || held.isAvailable(startTime, endTime);
+    }
+
+    private List<LocalDateTime> findConflicts(Room room, RecurringBooking series) {
+        List<LocalDateTime> conflicts = room.findConflicts(series);
+        BookingIndex held = heldByRoom.isEmpty() ? null : heldByRoom.get(room.getId());
+        if (held == null) {
+            return conflicts;
+        }
+
+        TreeSet<LocalDateTime> merged = new TreeSet<>(conflicts);
+        merged.addAll(held.findConflicts(series));
+        return new ArrayList<>(merged);
+    }
+
+    // Anropas efter att ändringen har sparats. Cachen invalideras först så att den aldrig blir
+    // inaktuell, och varje lyssnare anropas för sig så att en som kastar inte hoppar över de andra
+    // eller får en redan sparad ändring att se misslyckad ut
+    private void notifyListeners(Consumer<BookingListener> event) {
+        AvailabilityCache cache = availabilityCache;
+        if (cache != null) {
+            try {
+                event.accept(cache);
+            } catch (RuntimeException e) {
+                // Hellre tom än inaktuell
+                cache.clear();
+            }
+        }
+
+        for (BookingListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                // Fortsätt även om en lyssnare misslyckas
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // Avrundas uppåt så att tidshjulet inte släpper holden inom samma millisekund men före expiresAt
+    private static long deadlineMillis(LocalDateTime expiresAt) {
+        return toMillis(expiresAt) + (expiresAt.getNano() % 1_000_000 == 0 ? 0 : 1);
+    }
+
+    public Optional<RecurringBooking> bookRecurringRoom(String roomId, LocalDateTime startTime,
+                                                        LocalDateTime endTime, RecurrenceRule rule) {
+        if (startTime == null || endTime == null || roomId == null || rule == null) {
+            throw new IllegalArgumentException("Bokningsserie kräver giltiga start- och sluttider, rum-id och regel");
+        }
+
+        if (startTime.isBefore(timeProvider.getCurrentTime())) {
+            throw new IllegalArgumentException("Kan inte boka tid i dåtid");
+        }
+
+        if (endTime.isBefore(startTime)) {
+            throw new IllegalArgumentException("Sluttid måste vara efter starttid");
+        }
+
+        if (rule.until() != null && rule.until().isBefore(startTime.toLocalDate())) {
+            throw new IllegalArgumentException("Slutdatum för serien kan inte vara före första tillfället");
+        }
+
+        Room room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Rummet existerar inte"));
+
+        RecurringBooking series = new RecurringBooking(bookingIdGenerator.nextId(), roomId, startTime, endTime, rule);
+
+        synchronized (room) {
+            // Hela serien bokas eller ingenting, precis som bookRoom för en enskild bokning
+            if (!findConflicts(room, series).isEmpty()) {
+                return Optional.empty();
             }
 
-            if (endTime.isBefore(startTime)) {
-                throw new IllegalArgumentException("Sluttid måste vara efter starttid");
+            room.addRecurringBooking(series);
+            roomRepository.save(room);
+        }
+
+        notifyListeners(listener -> listener.recurringBookingCreated(series));
+
+        try {
+            notificationService.sendRecurringBookingConfirmation(series);
+        } catch (NotificationException e) {
+            // Fortsätt även om notifieringen misslyckas
+        }
+
+        return Optional.of(series);
+    }
+
+    public List<LocalDateTime> findRecurringConflicts(String roomId, LocalDateTime startTime,
+                                                      LocalDateTime endTime, RecurrenceRule rule) {
+        if (startTime == null || endTime == null || roomId == null || rule == null) {
+            throw new IllegalArgumentException("Bokningsserie kräver giltiga start- och sluttider, rum-id och regel");
+        }
+
+        Room room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Rummet existerar inte"));
+
+        return findConflicts(room, new RecurringBooking(null, roomId, startTime, endTime, rule));
+    }
+
+        public List<Room> getAvailableRooms(LocalDateTime startTime, LocalDateTime endTime) {
+            validateWindow(startTime, endTime);
+
+            if (availabilityCache != null) {
+                return availabilityCache.get(startTime, endTime, () -> findAvailableRooms(startTime, endTime));
             }
 
+            return findAvailableRooms(startTime, endTime);
+        }
+
+        private List<Room> findAvailableRooms(LocalDateTime startTime, LocalDateTime endTime) {
             return roomRepository.findAll().stream()
-                    .filter(room -> room.isAvailable(startTime, endTime))
+                    .filter(room -> isFree(room, startTime, endTime))
                     .collect(Collectors.toList());
         }
 
+    public Stream<Room> streamAvailableRooms(LocalDateTime startTime, LocalDateTime endTime) {
+        validateWindow(startTime, endTime);
+
+        // Filtreras lat så att bara de rum som faktiskt konsumeras utvärderas
+        return roomRepository.streamAll()
+                .filter(room -> isFree(room, startTime, endTime));
+    }
+
+    public RoomPage getAvailableRooms(LocalDateTime startTime, LocalDateTime endTime, String cursor, int limit) {
+        validateWindow(startTime, endTime);
+
+        if (limit < 1) {
+            throw new IllegalArgumentException("Sidstorleken måste vara minst 1");
+        }
+
+        // Markören söker direkt till rätt plats i repositoryt istället för att läsa alla rum före den
+        Stream<Room> rooms = cursor == null ? roomRepository.streamAll() : roomRepository.streamFrom(cursor);
+
+        // Ett rum extra avgör om det finns en nästa sida, limit() avbryter strömmen så fort det är läst
+        List<Room> found = rooms
+                .filter(room -> isFree(room, startTime, endTime))
+                .limit(limit + 1L)
+                .toList();
+
+        List<Room> page = found.size() > limit ? found.subList(0, limit) : found;
+        String nextCursor = found.size() > limit ? page.getLast().getId() : null;
+        return new RoomPage(page, nextCursor);
+    }
+
+    private void validateWindow(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            throw new IllegalArgumentException("Måste ange både start- och sluttid");
+        }
+
+        if (endTime.isBefore(startTime)) {
+            throw new IllegalArgumentException("Sluttid måste vara efter starttid");
+        }
+    }
+
     public boolean cancelBooking(String bookingId) {
         if (bookingId == null) {
             throw new IllegalArgumentException("Boknings-id kan inte vara null");
         }
 
+        // En hold har aldrig rapporterats som bokning, så den släpps istället för att avbokas
+        if (isHeld(bookingId)) {
+            return releaseHold(bookingId);
+        }
+
         Optional<Room> roomWithBooking = roomRepository.findAll().stream()
                 .filter(room -> room.hasBooking(bookingId))
                 .findFirst();
@@ -78,14 +585,24 @@ public class BookingSystem {
         }
 
         Room room = roomWithBooking.get();
-        Booking booking = room.getBooking(bookingId);
+        Booking booking;
 
-        if (booking.getStartTime().isBefore(timeProvider.getCurrentTime())) {
-            throw new IllegalStateException("Kan inte avboka påbörjad eller avslutad bokning");
+        synchronized (room) {
+            if (!room.hasBooking(bookingId)) {
+                return false;
+            }
+
+            booking = room.getBooking(bookingId);
+
+            if (booking.getStartTime().isBefore(timeProvider.getCurrentTime())) {
+                throw new IllegalStateException("Kan inte avboka påbörjad eller avslutad bokning");
+            }
+
+            room.removeBooking(bookingId);
+            roomRepository.save(room);
         }
 
-        room.removeBooking(bookingId);
-        roomRepository.save(room);
+        notifyListeners(listener -> listener.bookingCancelled(booking));
 
         try {
             notificationService.sendCancellationConfirmation(booking);
@@ -95,6 +612,97 @@ public class BookingSystem {
 
         return true;
     }
+
+    public boolean cancelRecurringBooking(String seriesId) {
+        if (seriesId == null) {
+            throw new IllegalArgumentException("Serie-id kan inte vara null");
+        }
+
+        Optional<Room> roomWithSeries = roomRepository.findAll().stream()
+                .filter(room -> room.hasRecurringBooking(seriesId))
+                .findFirst();
+
+        if (roomWithSeries.isEmpty()) {
+            return false;
+        }
+
+        Room room = roomWithSeries.get();
+        RecurringBooking series;
+
+        synchronized (room) {
+            if (!room.hasRecurringBooking(seriesId)) {
+                return false;
+            }
+
+            series = room.getRecurringBooking(seriesId);
+
+            // Redan påbörjade serier avbokas tillfälle för tillfälle med cancelOccurrence
+            if (series.getFirstStart().isBefore(timeProvider.getCurrentTime())) {
+                throw new IllegalStateException("Kan inte avboka påbörjad bokningsserie");
+            }
+
+            room.removeRecurringBooking(seriesId);
+            roomRepository.save(room);
+        }
+
+        notifyListeners(listener -> listener.recurringBookingCancelled(series));
+
+        try {
+            notificationService.sendRecurringCancellationConfirmation(series);
+        } catch (NotificationException e) {
+            // Fortsätt även om notifieringen misslyckas
+        }
+
+        return true;
+    }
+
+    public boolean cancelOccurrence(String seriesId, LocalDate date) {
+        if (seriesId == null || date == null) {
+            throw new IllegalArgumentException("Serie-id och datum kan inte vara null");
+        }
+
+        Optional<Room> roomWithSeries = roomRepository.findAll().stream()
+                .filter(room -> room.hasRecurringBooking(seriesId))
+                .findFirst();
+
+        if (roomWithSeries.isEmpty()) {
+            return false;
+        }
+
+        Room room = roomWithSeries.get();
+        Booking occurrence;
+
+        synchronized (room) {
+            if (!room.hasRecurringBooking(seriesId)) {
+                return false;
+            }
+
+            RecurringBooking series = room.getRecurringBooking(seriesId);
+
+            if (!series.hasOccurrenceOn(date)) {
+                return false;
+            }
+
+            occurrence = series.getOccurrence(date);
+
+            if (occurrence.getStartTime().isBefore(timeProvider.getCurrentTime())) {
+                throw new IllegalStateException("Kan inte avboka påbörjad eller avslutad bokning");
+            }
+
+            room.addRecurringBooking(series.withException(date));
+            roomRepository.save(room);
+        }
+
+        notifyListeners(listener -> listener.bookingCancelled(occurrence));
+
+        try {
+            notificationService.sendCancellationConfirmation(occurrence);
+        } catch (NotificationException e) {
+            // Fortsätt även om notifieringen misslyckas
+        }
+
+        return true;
+    }
 }
 
 // Stödklasser och interface som behövs:
@@ -0,0 +1,11 @@
+package com.example;
+
+import java.time.LocalDateTime;
+
+// Preliminär bokning som blockerar tiden tills den bekräftas, släpps eller går ut.
+// Hold-id:t är samma som id:t på den underliggande bokningen
+public record Hold(Booking booking, LocalDateTime expiresAt) {
+    public String id() {
+        return booking.getId();
+    }
+}
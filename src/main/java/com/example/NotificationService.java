@@ -1,6 +1,23 @@
 package com.example;
 
+import java.util.List;
+
 public interface NotificationService {
     void sendBookingConfirmation(Booking booking) throws NotificationException;
     void sendCancellationConfirmation(Booking booking) throws NotificationException;
+
+    // En gemensam bekräftelse för en gruppbokning. Standardimplementationen skickar en per rum
+    // så att befintliga implementationer fortsätter att fungera
+    default void sendGroupBookingConfirmation(List<Booking> bookings) throws NotificationException {
+        for (Booking booking : bookings) {
+            sendBookingConfirmation(booking);
+        }
+    }
+
+    // Serier är valfria att stödja, befintliga implementationer behöver inte ändras
+    default void sendRecurringBookingConfirmation(RecurringBooking series) throws NotificationException {
+    }
+
+    default void sendRecurringCancellationConfirmation(RecurringBooking series) throws NotificationException {
+    }
 }
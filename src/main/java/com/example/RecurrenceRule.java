@@ -0,0 +1,43 @@
+package com.example;
+
+import java.time.LocalDate;
+
+// En serie slutar antingen efter ett visst antal tillfällen (count) eller vid ett datum (until)
+public record RecurrenceRule(
+        Frequency frequency,
+        int interval,
+        LocalDate until,
+        int count
+) {
+    public enum Frequency {
+        DAILY,
+        WEEKLY
+    }
+
+    public RecurrenceRule {
+        if (frequency == null) {
+            throw new IllegalArgumentException("Upprepningsregel kräver en frekvens");
+        }
+
+        if (interval < 1) {
+            throw new IllegalArgumentException("Intervallet måste vara minst 1");
+        }
+
+        if ((until == null) == (count < 1)) {
+            throw new IllegalArgumentException("Ange antingen ett slutdatum eller ett antal tillfällen");
+        }
+    }
+
+    public static RecurrenceRule ofCount(Frequency frequency, int interval, int count) {
+        return new RecurrenceRule(frequency, interval, null, count);
+    }
+
+    public static RecurrenceRule ofUntil(Frequency frequency, int interval, LocalDate until) {
+        return new RecurrenceRule(frequency, interval, until, 0);
+    }
+
+    // Antal dagar mellan två tillfällen, t.ex. 14 för varannan tisdag
+    public long stepDays() {
+        return frequency == Frequency.WEEKLY ? 7L * interval : interval;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Lagras som regel plus undantag, tillfällena räknas fram vid behov istället för att sparas var för sig
+public class RecurringBooking {
+    private final String id;
+    private final String roomId;
+    private final LocalDateTime firstStart;
+    private final Duration duration;
+    private final RecurrenceRule rule;
+    private final Set<LocalDate> exceptions;
+
+    public RecurringBooking(String id, String roomId, LocalDateTime firstStart, LocalDateTime firstEnd,
+                            RecurrenceRule rule) {
+        this(id, roomId, firstStart, Duration.between(firstStart, firstEnd), rule, Set.of());
+    }
+
+    private RecurringBooking(String id, String roomId, LocalDateTime firstStart, Duration duration,
+                             RecurrenceRule rule, Set<LocalDate> exceptions) {
+        this.id = id;
+        this.roomId = roomId;
+        this.firstStart = firstStart;
+        this.duration = duration;
+        this.rule = rule;
+        this.exceptions = exceptions;
+    }
+
+    // Återskapar en sparad serie med dess undantag
+    public static RecurringBooking restore(String id, String roomId, LocalDateTime firstStart, Duration duration,
+                                           RecurrenceRule rule, Set<LocalDate> exceptions) {
+        return new RecurringBooking(id, roomId, firstStart, duration, rule, Set.copyOf(exceptions));
+    }
+
+    public RecurringBooking withException(LocalDate date) {
+        Set<LocalDate> updated = new HashSet<>(exceptions);
+        updated.add(date);
+        return new RecurringBooking(id, roomId, firstStart, duration, rule, Collections.unmodifiableSet(updated));
+    }
+
+    public boolean hasOccurrenceOn(LocalDate date) {
+        long days = ChronoUnit.DAYS.between(firstStart.toLocalDate(), date);
+        return days >= 0
+                && days % rule.stepDays() == 0
+                && isWithinRule(days / rule.stepDays())
+                && !exceptions.contains(date);
+    }
+
+    public Booking getOccurrence(LocalDate date) {
+        if (!hasOccurrenceOn(date)) {
+            throw new IllegalArgumentException("Serien har inget tillfälle detta datum");
+        }
+        LocalDateTime start = date.atTime(firstStart.toLocalTime());
+        return new Booking(id, roomId, start, start.plus(duration));
+    }
+
+    // Tillfällena i stigande starttid, undantagen är redan bortfiltrerade
+    public Stream<Booking> occurrences() {
+        return Stream.iterate(0L, this::isWithinRule, k -> k + 1)
+                .map(this::occurrenceStart)
+                .filter(start -> !exceptions.contains(start.toLocalDate()))
+                .map(start -> new Booking(id, roomId, start, start.plus(duration)));
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        // Hoppa direkt till tillfället strax före fönstret istället för att gå igenom hela serien
+        long daysBefore = ChronoUnit.DAYS.between(firstStart, start.minus(duration));
+        long k = Math.max(0, daysBefore / rule.stepDays() - 1);
+
+        for (; isWithinRule(k); k++) {
+            LocalDateTime occurrenceStart = occurrenceStart(k);
+            if (occurrenceStart.isAfter(end)) {
+                return false;
+            }
+            LocalDateTime occurrenceEnd = occurrenceStart.plus(duration);
+            if (!occurrenceEnd.isBefore(start) && !exceptions.contains(occurrenceStart.toLocalDate())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private LocalDateTime occurrenceStart(long k) {
+        return firstStart.plusDays(k * rule.stepDays());
+    }
+
+    private boolean isWithinRule(long k) {
+        if (rule.count() > 0) {
+            return k < rule.count();
+        }
+        return !occurrenceStart(k).toLocalDate().isAfter(rule.until());
+    }
+
+    public LocalDateTime getLastEnd() {
+        long last = rule.count() > 0
+                ? rule.count() - 1
+                : ChronoUnit.DAYS.between(firstStart.toLocalDate(), rule.until()) / rule.stepDays();
+        return occurrenceStart(last).plus(duration);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public LocalDateTime getFirstStart() {
+        return firstStart;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public RecurrenceRule getRule() {
+        return rule;
+    }
+
+    public Set<LocalDate> getExceptions() {
+        return exceptions;
+    }
+}
@@ -1,45 +1,77 @@
 package com.example;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Room {
     private final String id;
     private final String name;
-    private final Set<Booking> bookings = new HashSet<>();
+    // Läsningar hämtar aktuell version utan lås, skrivningar byter in en ny version atomärt
+    private final AtomicReference<BookingIndex> index = new AtomicReference<>(BookingIndex.EMPTY);
 
     public Room(String id, String name) {
         this.id = id;
         this.name = name;
     }
 
+    // Bygger rummet i ett svep från sparat tillstånd istället för en bokning i taget
+    public static Room restore(String id, String name, Collection<Booking> bookings,
+                               Collection<RecurringBooking> recurringBookings) {
+        Room room = new Room(id, name);
+        room.index.set(BookingIndex.of(bookings, recurringBookings));
+        return room;
+    }
+
+    public BookingIndex snapshot() {
+        return index.get();
+    }
+
     public boolean isAvailable(LocalDateTime startTime, LocalDateTime endTime) {
-        return bookings.stream()
-                .noneMatch(booking ->
-                        booking.overlaps(startTime, endTime));
+        return index.get().isAvailable(startTime, endTime);
+    }
+
+    // Returnerar starttiderna för de tillfällen i serien som krockar med rummets bokningar
+    public List<LocalDateTime> findConflicts(RecurringBooking candidate) {
+        return index.get().findConflicts(candidate);
     }
 
     public void addBooking(Booking booking) {
-        bookings.add(booking);
+        index.updateAndGet(current -> current.withBooking(booking));
     }
 
     public void removeBooking(String bookingId) {
-        bookings.removeIf(booking -> booking.getId().equals(bookingId));
+        index.updateAndGet(current -> current.withoutBooking(bookingId));
     }
 
     public boolean hasBooking(String bookingId) {
-        return bookings.stream()
-                .anyMatch(booking -> booking.getId().equals(bookingId));
+        return index.get().findBooking(bookingId).isPresent();
     }
 
     public Booking getBooking(String bookingId) {
-        return bookings.stream()
-                .filter(booking -> booking.getId().equals(bookingId))
-                .findFirst()
+        return index.get().findBooking(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Bokning finns inte"));
     }
 
+    // En serie med samma id ersätts, t.ex. när ett undantag har lagts till
+    public void addRecurringBooking(RecurringBooking series) {
+        index.updateAndGet(current -> current.withRecurringBooking(series));
+    }
+
+    public void removeRecurringBooking(String seriesId) {
+        index.updateAndGet(current -> current.withoutRecurringBooking(seriesId));
+    }
+
+    public boolean hasRecurringBooking(String seriesId) {
+        return index.get().findRecurringBooking(seriesId).isPresent();
+    }
+
+    public RecurringBooking getRecurringBooking(String seriesId) {
+        return index.get().findRecurringBooking(seriesId)
+                .orElseThrow(() -> new IllegalArgumentException("Bokningsserie finns inte"));
+    }
+
     public String getId() {
         return id;
     }
@@ -0,0 +1,13 @@
+package com.example;
+
+import java.util.List;
+
+// nextCursor är id:t för sista rummet på sidan, eller null när det inte finns fler lediga rum
+public record RoomPage(
+        List<Room> rooms,
+        String nextCursor
+) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
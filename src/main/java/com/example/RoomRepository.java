@@ -1,10 +1,32 @@
 package com.example;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface RoomRepository {
     Optional<Room> findById(String id);
     List<Room> findAll();
     void save(Room room);
+
+    // Sparar flera rum i ett anrop, implementationer bör skriva över denna med en riktig batch
+    default void saveAll(Collection<Room> rooms) {
+        rooms.forEach(this::save);
+    }
+
+    // Rummen i stigande rum-id-ordning. Implementationer med ett eget index bör
+    // skriva över denna så att rummen läses lat istället för via findAll()
+    default Stream<Room> streamAll() {
+        return findAll().stream()
+                .sorted(Comparator.comparing(Room::getId));
+    }
+
+    // Rummen med id efter afterId i stigande ordning. Ett sorterat index bör söka direkt
+    // till afterId istället för att läsa alla rum före det
+    default Stream<Room> streamFrom(String afterId) {
+        return streamAll()
+                .dropWhile(room -> room.getId().compareTo(afterId) <= 0);
+    }
 }
@@ -0,0 +1,117 @@
+package com.example;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Snowflake-liknande id: 41 bitar millisekunder sedan EPOCH, 10 bitar nod, 12 bitar löpnummer.
+// Id:n ökar med tiden så att nya bokningar hamnar sist i databasens index istället för utspridda
+public class SortableBookingIdGenerator implements BookingIdGenerator {
+    public static final Instant EPOCH = Instant.parse("2026-01-01T00:00:00Z");
+    public static final int MAX_NODE_ID = (1 << 10) - 1;
+    public static final int ENCODED_LENGTH = 13;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+            VALUES[Character.toLowerCase(ALPHABET[i])] = i;
+        }
+    }
+
+    private final int nodeId;
+    private final LongSupplier clock;
+    // Senast utdelade tidsstämpel och löpnummer, (millis << SEQUENCE_BITS) | löpnummer
+    private final AtomicLong state = new AtomicLong();
+
+    public SortableBookingIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public SortableBookingIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Nod-id måste vara mellan 0 och " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        return encode(nextLongId());
+    }
+
+    public long nextLongId() {
+        long now = clock.getAsLong() - EPOCH.toEpochMilli();
+        long next;
+
+        // Ingen låsning, bara CAS. Tar löpnumren slut inom en millisekund, eller om klockan
+        // går bakåt, lånas nästa millisekund istället för att vänta
+        while (true) {
+            long previous = state.get();
+            long previousMillis = previous >>> SEQUENCE_BITS;
+
+            if (now > previousMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((previous & SEQUENCE_MASK) == SEQUENCE_MASK) {
+                next = (previousMillis + 1) << SEQUENCE_BITS;
+            } else {
+                next = previous + 1;
+            }
+
+            if (state.compareAndSet(previous, next)) {
+                break;
+            }
+        }
+
+        long millis = next >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS))
+                | ((long) nodeId << SEQUENCE_BITS)
+                | (next & SEQUENCE_MASK);
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    public static Instant timestampOf(long id) {
+        return EPOCH.plusMillis(id >>> (NODE_BITS + SEQUENCE_BITS));
+    }
+
+    // Crockford base32 med fast längd, så strängarna sorteras i samma ordning som talen
+    public static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static long decode(String encoded) {
+        if (encoded == null || encoded.length() != ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Ogiltigt boknings-id: " + encoded);
+        }
+
+        long id = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            int value = valueOf(encoded.charAt(i));
+            if (value < 0 || (i == 0 && value > 15)) {
+                throw new IllegalArgumentException("Ogiltigt boknings-id: " + encoded);
+            }
+            id = (id << 5) | value;
+        }
+        return id;
+    }
+
+    private static int valueOf(char c) {
+        return c < VALUES.length ? VALUES[c] : -1;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hierarkiskt tidshjul. Varje nivå har wheelSize fack, och tider som ligger längre fram än
+// nivån täcker hamnar i en grövre nivå som skapas vid behov. Att lägga till och ta bort
+// en timer kostar O(1) och att flytta fram hjulet besöker högst wheelSize fack per nivå,
+// oavsett hur många timers som väntar. En timer går aldrig ut före sin tid: timers i nuvarande
+// tick kontrolleras mot den exakta tiden vid varje advanceTo.
+// Klassen är inte trådsäker, anroparen ansvarar för låsning
+public final class TimingWheel<T> {
+    private final Level<T> root;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick måste vara minst 1 ms och hjulet ha minst 2 fack");
+        }
+        this.root = new Level<>(tickMillis, wheelSize, startMillis);
+    }
+
+    // Timers vars tid redan har passerat går ut vid nästa advanceTo
+    public Timeout<T> schedule(T task, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(this, task, deadlineMillis);
+        if (!root.add(timeout)) {
+            root.addOverdue(timeout);
+        }
+        size++;
+        return timeout;
+    }
+
+    // Flyttar fram hjulet och returnerar uppgifterna vars tid har gått ut, i fackordning
+    public List<T> advanceTo(long nowMillis) {
+        List<Timeout<T>> flushed = new ArrayList<>();
+        root.advance(nowMillis, flushed);
+
+        List<T> expired = new ArrayList<>();
+        for (Timeout<T> timeout : flushed) {
+            if (timeout.deadlineMillis <= nowMillis) {
+                size--;
+                expired.add(timeout.task);
+            } else if (!root.add(timeout)) {
+                // Senare i nuvarande tick, kontrolleras igen vid nästa advanceTo
+                root.addOverdue(timeout);
+            }
+            // Övriga har hamnat i ett finare fack närmare sin tid
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static final class Timeout<T> {
+        private final TimingWheel<T> wheel;
+        private final T task;
+        private final long deadlineMillis;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(TimingWheel<T> wheel, T task, long deadlineMillis) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        // Returnerar false om timern redan har gått ut eller tagits bort
+        public boolean cancel() {
+            if (previous == null) {
+                return false;
+            }
+            unlink();
+            wheel.size--;
+            return true;
+        }
+
+        public T getTask() {
+            return task;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        private void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = null;
+            next = null;
+        }
+    }
+
+    private static final class Level<T> {
+        private final long tickMillis;
+        private final int wheelSize;
+        private final long intervalMillis;
+        // Varje fack är en cirkulär dubbellänkad lista med en vaktpost, så en timer kan tas bort direkt
+        private final Timeout<T>[] buckets;
+        private long currentMillis;
+        private Level<T> overflow;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Level(long tickMillis, int wheelSize, long startMillis) {
+            this.tickMillis = tickMillis;
+            this.wheelSize = wheelSize;
+            this.intervalMillis = Math.multiplyExact(tickMillis, wheelSize);
+            this.buckets = new Timeout[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                Timeout<T> sentinel = new Timeout<>(null, null, 0);
+                sentinel.previous = sentinel;
+                sentinel.next = sentinel;
+                buckets[i] = sentinel;
+            }
+            this.currentMillis = startMillis - Math.floorMod(startMillis, tickMillis);
+        }
+
+        // Returnerar false om timern går ut redan under nuvarande tick
+        private boolean add(Timeout<T> timeout) {
+            long deadline = timeout.deadlineMillis;
+            if (deadline < currentMillis + tickMillis) {
+                return false;
+            }
+
+            if (deadline < currentMillis + intervalMillis) {
+                link(buckets[(int) Math.floorMod(Math.floorDiv(deadline, tickMillis), (long) wheelSize)], timeout);
+                return true;
+            }
+
+            if (overflow == null) {
+                overflow = new Level<>(intervalMillis, wheelSize, currentMillis);
+            }
+            return overflow.add(timeout);
+        }
+
+        // Försenade timers och timers senare i nuvarande tick läggs i facket för nuvarande tick,
+    // som töms vid varje advanceTo
+        private void addOverdue(Timeout<T> timeout) {
+            link(buckets[(int) Math.floorMod(Math.floorDiv(currentMillis, tickMillis), (long) wheelSize)], timeout);
+        }
+
+        private void advance(long nowMillis, List<Timeout<T>> flushed) {
+            long target = nowMillis - Math.floorMod(nowMillis, tickMillis);
+            if (target <= currentMillis) {
+                // Samma tick, bara nuvarande fack kan innehålla något som har hunnit gå ut
+                drain(buckets[(int) Math.floorMod(Math.floorDiv(currentMillis, tickMillis), (long) wheelSize)], flushed);
+                return;
+            }
+
+            // Nuvarande fack tas med eftersom försenade timers ligger där. Efter ett helt varv
+            // har alla fack besökts, så längre glapp kostar inte mer
+            long fromSlot = Math.floorDiv(currentMillis, tickMillis);
+            long toSlot = Math.floorDiv(target, tickMillis);
+            long count = Math.min(toSlot - fromSlot + 1, wheelSize);
+            for (long slot = toSlot - count + 1; slot <= toSlot; slot++) {
+                drain(buckets[(int) Math.floorMod(slot, (long) wheelSize)], flushed);
+            }
+            currentMillis = target;
+
+            if (overflow != null) {
+                overflow.advance(nowMillis, flushed);
+            }
+        }
+
+        private static <T> void link(Timeout<T> sentinel, Timeout<T> timeout) {
+            timeout.previous = sentinel.previous;
+            timeout.next = sentinel;
+            sentinel.previous.next = timeout;
+            sentinel.previous = timeout;
+        }
+
+        private static <T> void drain(Timeout<T> sentinel, List<Timeout<T>> flushed) {
+            while (sentinel.next != sentinel) {
+                Timeout<T> timeout = sentinel.next;
+                timeout.unlink();
+                flushed.add(timeout);
+            }
+        }
+    }
+}
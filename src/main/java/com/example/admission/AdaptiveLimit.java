@@ -0,0 +1,53 @@
+package com.example.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// AIMD: gränsen växer med ungefär ett per fullt varv av lyckade anrop och
+// krymper multiplikativt så fort ett anrop tar längre tid än latencyThreshold.
+// Den växer bara när minst halva gränsen används, annars skulle låg last driva
+// upp den till maxLimit och nästa topp släppas in med full samtidighet
+public class AdaptiveLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    // Bitarna för en double, så att gränsen kan läsas utan lås på varje antagningsbeslut
+    private final AtomicLong limit;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Gränserna måste uppfylla 1 <= min <= initial <= max");
+        }
+
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff måste vara mellan 0 och 1");
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    // inFlight är antalet pågående anrop när provet togs, det egna inräknat
+    public void onSample(long latencyNanos, int inFlight) {
+        limit.updateAndGet(bits -> {
+            double current = Double.longBitsToDouble(bits);
+            double next;
+            if (latencyNanos > latencyThresholdNanos) {
+                next = Math.max(minLimit, current * backoffRatio);
+            } else if (inFlight * 2 >= current) {
+                next = Math.min(maxLimit, current + 1.0 / current);
+            } else {
+                return bits;
+            }
+            return Double.doubleToRawLongBits(next);
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.admission;
+
+import com.example.BookingSystem;
+
+import java.time.LocalDateTime;
+
+public class AdmissionControlledBookingSystem {
+    private final BookingSystem bookingSystem;
+    private final AdmissionController admissionController;
+
+    public AdmissionControlledBookingSystem(BookingSystem bookingSystem, AdmissionController admissionController) {
+        this.bookingSystem = bookingSystem;
+        this.admissionController = admissionController;
+    }
+
+    public BookingOutcome bookRoom(String roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (roomId == null) {
+            throw new IllegalArgumentException("Bokning kräver giltiga start- och sluttider samt rum-id");
+        }
+
+        return admissionController.execute(roomId,
+                () -> bookingSystem.bookRoom(roomId, startTime, endTime)
+                        ? BookingOutcome.BOOKED
+                        : BookingOutcome.UNAVAILABLE,
+                BookingOutcome.OVERLOADED);
+    }
+
+    // Rummet är okänt innan bokningen har slagits upp, så avbokningar begränsas bara globalt
+    public BookingOutcome cancelBooking(String bookingId) {
+        return admissionController.execute(null,
+                () -> bookingSystem.cancelBooking(bookingId)
+                        ? BookingOutcome.CANCELLED
+                        : BookingOutcome.NOT_FOUND,
+                BookingOutcome.OVERLOADED);
+    }
+
+    public AdmissionController.Stats stats() {
+        return admissionController.stats();
+    }
+}
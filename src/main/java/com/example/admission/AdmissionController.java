@@ -0,0 +1,91 @@
+package com.example.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+public class AdmissionController {
+    private final AdaptiveLimit globalLimit;
+    private final int maxPerRoom;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Rum utan pågående anrop tas bort så att kartan inte växer med antalet rum
+    private final Map<String, Integer> inFlightPerRoom = new ConcurrentHashMap<>();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public record Stats(long admitted, long rejected, int inFlight, int limit) {
+    }
+
+    public AdmissionController(AdaptiveLimit globalLimit, int maxPerRoom) {
+        this(globalLimit, maxPerRoom, System::nanoTime);
+    }
+
+    public AdmissionController(AdaptiveLimit globalLimit, int maxPerRoom, LongSupplier nanoClock) {
+        if (maxPerRoom < 1) {
+            throw new IllegalArgumentException("Gränsen per rum måste vara minst 1");
+        }
+        this.globalLimit = globalLimit;
+        this.maxPerRoom = maxPerRoom;
+        this.nanoClock = nanoClock;
+    }
+
+    // Kör action om det finns plats, annars returneras onOverload utan att vänta i kö.
+    // roomId kan vara null för anrop som inte hör till ett känt rum
+    public <T> T execute(String roomId, Supplier<T> action, T onOverload) {
+        if (!tryAcquireGlobal()) {
+            rejected.increment();
+            return onOverload;
+        }
+
+        if (roomId != null && !tryAcquireRoom(roomId)) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return onOverload;
+        }
+
+        admitted.increment();
+        long started = nanoClock.getAsLong();
+        try {
+            return action.get();
+        } finally {
+            globalLimit.onSample(nanoClock.getAsLong() - started, inFlight.get());
+            if (roomId != null) {
+                inFlightPerRoom.computeIfPresent(roomId, (id, count) -> count == 1 ? null : count - 1);
+            }
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private boolean tryAcquireGlobal() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= globalLimit.getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean tryAcquireRoom(String roomId) {
+        boolean[] acquired = {false};
+        inFlightPerRoom.compute(roomId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxPerRoom) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    public Stats stats() {
+        return new Stats(admitted.sum(), rejected.sum(), inFlight.get(), globalLimit.getLimit());
+    }
+}
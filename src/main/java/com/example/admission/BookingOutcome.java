@@ -0,0 +1,10 @@
+package com.example.admission;
+
+public enum BookingOutcome {
+    BOOKED,
+    UNAVAILABLE,
+    CANCELLED,
+    NOT_FOUND,
+    // Avvisad direkt utan att ha nått BookingSystem, klienten kan försöka igen senare
+    OVERLOADED
+}
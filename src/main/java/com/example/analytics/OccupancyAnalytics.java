@@ -0,0 +1,155 @@
+package com.example.analytics;
+
+import com.example.Booking;
+import com.example.BookingListener;
+import com.example.RecurringBooking;
+import com.example.Room;
+import com.example.RoomRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Håller bokade minuter per rum, dag och timme uppdaterade i takt med att BookingSystem
+// bokar och avbokar, så att rapporter kan besvaras utan att gå igenom bokningarna igen.
+// Holds räknas inte, en hold som bekräftas kommer in via bookingCreated som vilken bokning som helst
+public class OccupancyAnalytics implements BookingListener {
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MINUTES_PER_DAY = HOURS_PER_DAY * 60;
+
+    // rum-id -> dag -> bokade minuter för varje timme på dygnet
+    private final ConcurrentSkipListMap<String, ConcurrentSkipListMap<LocalDate, AtomicIntegerArray>> rooms =
+            new ConcurrentSkipListMap<>();
+    // Vilka rum som finns avgörs av registret, även rum som aldrig har bokats ska räknas i nämnaren
+    private final RoomRepository roomRepository;
+
+    public OccupancyAnalytics(RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    public record Utilization(int rooms, long bookedMinutes, long availableMinutes) {
+        public double ratio() {
+            return availableMinutes == 0 ? 0 : (double) bookedMinutes / availableMinutes;
+        }
+    }
+
+    // Bygger upp aggregaten från rummens nuvarande bokningar, t.ex. vid uppstart.
+    // Holds sparas aldrig i rummen, så de kommer inte med här heller
+    public void load(Collection<Room> existingRooms) {
+        for (Room room : existingRooms) {
+            room.snapshot().getBookings().forEach(this::bookingCreated);
+            room.snapshot().getRecurringBookings().forEach(this::recurringBookingCreated);
+        }
+    }
+
+    @Override
+    public void bookingCreated(Booking booking) {
+        record(booking, 1);
+    }
+
+    @Override
+    public void bookingCancelled(Booking booking) {
+        record(booking, -1);
+    }
+
+    @Override
+    public void recurringBookingCreated(RecurringBooking series) {
+        series.occurrences().forEach(occurrence -> record(occurrence, 1));
+    }
+
+    @Override
+    public void recurringBookingCancelled(RecurringBooking series) {
+        series.occurrences().forEach(occurrence -> record(occurrence, -1));
+    }
+
+    // Utnyttjandegrad för rummen fromRoomId..toRoomId mellan from och to, gränserna inräknade
+    public Utilization utilization(String fromRoomId, String toRoomId, LocalDate from, LocalDate to) {
+        // streamFrom börjar efter sitt argument, så fromRoomId hämtas för sig
+        long roomCount;
+        try (Stream<Room> selected = Stream.concat(roomRepository.findById(fromRoomId).stream(),
+                roomRepository.streamFrom(fromRoomId))) {
+            roomCount = selected.takeWhile(room -> room.getId().compareTo(toRoomId) <= 0).count();
+        }
+
+        long booked = 0;
+        NavigableMap<String, ConcurrentSkipListMap<LocalDate, AtomicIntegerArray>> bookedRooms =
+                rooms.subMap(fromRoomId, true, toRoomId, true);
+        for (ConcurrentSkipListMap<LocalDate, AtomicIntegerArray> days : bookedRooms.values()) {
+            for (AtomicIntegerArray hours : days.subMap(from, true, to, true).values()) {
+                booked += sum(hours);
+            }
+        }
+
+        long dayCount = ChronoUnit.DAYS.between(from, to) + 1;
+        return new Utilization((int) roomCount, booked, roomCount * dayCount * MINUTES_PER_DAY);
+    }
+
+    public NavigableMap<LocalDate, Double> dailyUtilization(String roomId, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Double> result = new TreeMap<>();
+        ConcurrentSkipListMap<LocalDate, AtomicIntegerArray> days = rooms.get(roomId);
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            AtomicIntegerArray hours = days != null ? days.get(day) : null;
+            result.put(day, hours != null ? (double) sum(hours) / MINUTES_PER_DAY : 0.0);
+        }
+        return result;
+    }
+
+    // Bokade minuter per timme på dygnet summerat över alla rum och dagar i intervallet
+    public long[] hourlyBookedMinutes(LocalDate from, LocalDate to) {
+        long[] totals = new long[HOURS_PER_DAY];
+        for (ConcurrentSkipListMap<LocalDate, AtomicIntegerArray> days : rooms.values()) {
+            for (AtomicIntegerArray hours : days.subMap(from, true, to, true).values()) {
+                for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                    totals[hour] += hours.get(hour);
+                }
+            }
+        }
+        return totals;
+    }
+
+    public List<Integer> peakHours(LocalDate from, LocalDate to, int count) {
+        long[] totals = hourlyBookedMinutes(from, to);
+        return IntStream.range(0, HOURS_PER_DAY)
+                .filter(hour -> totals[hour] > 0)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer hour) -> totals[hour]).reversed())
+                .limit(count)
+                .toList();
+    }
+
+    private void record(Booking booking, int sign) {
+        ConcurrentSkipListMap<LocalDate, AtomicIntegerArray> days =
+                rooms.computeIfAbsent(booking.getRoomId(), id -> new ConcurrentSkipListMap<>());
+
+        // Delar upp bokningen i de timmar den täcker och lägger till minuterna i respektive kolumn
+        LocalDateTime cursor = booking.getStartTime();
+        LocalDateTime end = booking.getEndTime();
+        while (cursor.isBefore(end)) {
+            LocalDateTime nextHour = cursor.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            LocalDateTime bucketEnd = nextHour.isBefore(end) ? nextHour : end;
+            int minutes = (int) ChronoUnit.MINUTES.between(cursor, bucketEnd);
+
+            days.computeIfAbsent(cursor.toLocalDate(), day -> new AtomicIntegerArray(HOURS_PER_DAY))
+                    .addAndGet(cursor.getHour(), sign * minutes);
+            cursor = bucketEnd;
+        }
+    }
+
+    private static long sum(AtomicIntegerArray hours) {
+        long total = 0;
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+            total += hours.get(hour);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.checkout;
+
+import com.example.payment.PaymentException;
+import com.example.payment.PaymentProcessor;
+import com.example.payment.PaymentStatus;
+import com.example.shop.PricedCart;
+import com.example.shop.ShoppingCart;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+public class CheckoutPipeline {
+    private final PaymentProcessor paymentProcessor;
+    private final OrderRepository orderRepository;
+    private final Supplier<String> orderIds;
+    private final LongSupplier nanoClock;
+
+    // Order ids must be unique across every node writing to the same OrderRepository, so the
+    // caller supplies them (e.g. from a generator keyed on the node id) instead of a fixed default
+    public CheckoutPipeline(PaymentProcessor paymentProcessor, OrderRepository orderRepository,
+                            Supplier<String> orderIds) {
+        this(paymentProcessor, orderRepository, orderIds, System::nanoTime);
+    }
+
+    public CheckoutPipeline(PaymentProcessor paymentProcessor, OrderRepository orderRepository,
+                            Supplier<String> orderIds, LongSupplier nanoClock) {
+        if (orderIds == null) {
+            throw new IllegalArgumentException("Order id supplier cannot be null");
+        }
+        this.paymentProcessor = paymentProcessor;
+        this.orderRepository = orderRepository;
+        this.orderIds = orderIds;
+        this.nanoClock = nanoClock;
+    }
+
+    // A declined or failed charge is returned as a FAILED order rather than thrown, the
+    // PaymentProcessor has already written the payment audit either way. The order is saved
+    // as PENDING before the card is charged, so a charge never happens without an order on
+    // record. If the final save fails the order stays PENDING and the exception is rethrown,
+    // leaving it to be reconciled against the payment audit
+    public CheckoutResult checkout(String email, ShoppingCart cart) {
+        if (email == null || cart == null) {
+            throw new IllegalArgumentException("Email and cart cannot be null");
+        }
+
+        long started = nanoClock.getAsLong();
+        PricedCart priced = cart.freeze();
+        if (priced.lines().isEmpty()) {
+            throw new IllegalArgumentException("Cannot check out an empty cart");
+        }
+        long pricedAt = nanoClock.getAsLong();
+
+        String orderId = orderIds.get();
+        orderRepository.save(new Order(orderId, email, priced, PaymentStatus.PENDING));
+        long reservedAt = nanoClock.getAsLong();
+
+        PaymentStatus status;
+        try {
+            paymentProcessor.processPayment(email, priced.total());
+            status = PaymentStatus.SUCCESS;
+        } catch (PaymentException e) {
+            status = PaymentStatus.FAILED;
+        }
+        long paidAt = nanoClock.getAsLong();
+
+        Order order = new Order(orderId, email, priced, status);
+        orderRepository.save(order);
+        long savedAt = nanoClock.getAsLong();
+
+        return new CheckoutResult(order, new CheckoutResult.Timings(
+                Duration.ofNanos(pricedAt - started),
+                Duration.ofNanos(paidAt - reservedAt),
+                Duration.ofNanos((reservedAt - pricedAt) + (savedAt - paidAt))));
+    }
+
+    // Each checkout runs on its own virtual thread, so waiting on the payment API does not hold a platform thread
+    public List<CheckoutResult> checkoutAll(List<CheckoutRequest> requests) {
+        List<Future<CheckoutResult>> pending = new ArrayList<>(requests.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (CheckoutRequest request : requests) {
+                pending.add(executor.submit(() -> checkout(request.email(), request.cart())));
+            }
+
+            List<CheckoutResult> results = new ArrayList<>(requests.size());
+            for (Future<CheckoutResult> result : pending) {
+                results.add(result.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Checkout was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Checkout failed", e.getCause());
+        }
+    }
+}
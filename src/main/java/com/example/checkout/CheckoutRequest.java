@@ -0,0 +1,9 @@
+package com.example.checkout;
+
+import com.example.shop.ShoppingCart;
+
+public record CheckoutRequest(
+        String email,
+        ShoppingCart cart
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.checkout;
+
+import com.example.payment.PaymentStatus;
+
+import java.time.Duration;
+
+public record CheckoutResult(
+        Order order,
+        Timings timings
+) {
+    public record Timings(Duration pricing, Duration payment, Duration persistence) {
+        public Duration total() {
+            return pricing.plus(payment).plus(persistence);
+        }
+    }
+
+    public boolean succeeded() {
+        return order.status() == PaymentStatus.SUCCESS;
+    }
+}
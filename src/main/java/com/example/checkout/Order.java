@@ -0,0 +1,12 @@
+package com.example.checkout;
+
+import com.example.payment.PaymentStatus;
+import com.example.shop.PricedCart;
+
+public record Order(
+        String id,
+        String email,
+        PricedCart cart,
+        PaymentStatus status
+) {
+}
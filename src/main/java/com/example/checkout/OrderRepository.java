@@ -0,0 +1,6 @@
+package com.example.checkout;
+
+public interface OrderRepository {
+    // Replaces an earlier order with the same id
+    void save(Order order);
+}
@@ -0,0 +1,26 @@
+package com.example.events;
+
+import com.example.Booking;
+import com.example.RecurringBooking;
+
+import java.math.BigDecimal;
+
+public sealed interface ChangeEvent {
+    record BookingCreated(Booking booking) implements ChangeEvent {
+    }
+
+    record BookingCancelled(Booking booking) implements ChangeEvent {
+    }
+
+    record RecurringBookingCreated(RecurringBooking series) implements ChangeEvent {
+    }
+
+    record RecurringBookingCancelled(RecurringBooking series) implements ChangeEvent {
+    }
+
+    record PaymentSucceeded(String email, BigDecimal amount) implements ChangeEvent {
+    }
+
+    record PaymentFailed(String email, BigDecimal amount, String reason) implements ChangeEvent {
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.events;
+
+import com.example.Booking;
+import com.example.BookingListener;
+import com.example.RecurringBooking;
+import com.example.payment.PaymentListener;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Ringbuffert som BookingSystem och PaymentProcessor publicerar till. Varje konsument har en egen
+// position, och en konsument som halkar efter mer än kapaciteten hoppar fram istället för att
+// bromsa publiceringen
+public class ChangeFeed implements BookingListener, PaymentListener {
+    private static final long WRITING = -1;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<ChangeEvent> entries;
+    // Vilken sekvens som ligger i varje plats, WRITING medan den skrivs över
+    private final AtomicLongArray sequences;
+    private volatile long published;
+
+    public ChangeFeed(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Kapaciteten måste vara en tvåpotens");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, WRITING);
+        }
+    }
+
+    // Producenterna turas om, läsarna tar aldrig låset
+    public synchronized long publish(ChangeEvent event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Händelse kan inte vara null");
+        }
+
+        long sequence = published;
+        int slot = (int) (sequence & mask);
+        sequences.set(slot, WRITING);
+        entries.set(slot, event);
+        sequences.set(slot, sequence);
+        published = sequence + 1;
+        return sequence;
+    }
+
+    // Konsumenten börjar vid nästa händelse som publiceras
+    public ChangeFeedConsumer subscribe(String name) {
+        return new ChangeFeedConsumer(this, name, published);
+    }
+
+    long published() {
+        return published;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    // Returnerar null om platsen har skrivits över av en senare sekvens
+    ChangeEvent read(long sequence) {
+        int slot = (int) (sequence & mask);
+        if (sequences.get(slot) != sequence) {
+            return null;
+        }
+        ChangeEvent event = entries.get(slot);
+        return sequences.get(slot) == sequence ? event : null;
+    }
+
+    @Override
+    public void bookingCreated(Booking booking) {
+        publish(new ChangeEvent.BookingCreated(booking));
+    }
+
+    @Override
+    public void bookingCancelled(Booking booking) {
+        publish(new ChangeEvent.BookingCancelled(booking));
+    }
+
+    @Override
+    public void recurringBookingCreated(RecurringBooking series) {
+        publish(new ChangeEvent.RecurringBookingCreated(series));
+    }
+
+    @Override
+    public void recurringBookingCancelled(RecurringBooking series) {
+        publish(new ChangeEvent.RecurringBookingCancelled(series));
+    }
+
+    @Override
+    public void paymentSucceeded(String email, BigDecimal amount) {
+        publish(new ChangeEvent.PaymentSucceeded(email, amount));
+    }
+
+    @Override
+    public void paymentFailed(String email, BigDecimal amount, String reason) {
+        publish(new ChangeEvent.PaymentFailed(email, amount, reason));
+    }
+}
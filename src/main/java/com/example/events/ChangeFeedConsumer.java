@@ -0,0 +1,62 @@
+package com.example.events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Används av en tråd i taget, flera konsumenter läser samma flöde oberoende av varandra
+public class ChangeFeedConsumer {
+    private final ChangeFeed feed;
+    private final String name;
+    private long cursor;
+    private long missed;
+
+    ChangeFeedConsumer(ChangeFeed feed, String name, long cursor) {
+        this.feed = feed;
+        this.name = name;
+        this.cursor = cursor;
+    }
+
+    public synchronized List<ChangeEvent> poll(int maxBatch) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("Batchstorleken måste vara minst 1");
+        }
+
+        List<ChangeEvent> batch = new ArrayList<>(Math.min(maxBatch, feed.capacity()));
+        long head = feed.published();
+        skipOverwritten(head);
+
+        while (cursor < head && batch.size() < maxBatch) {
+            ChangeEvent event = feed.read(cursor);
+            if (event == null) {
+                // Producenterna har hunnit varva oss under läsningen
+                head = feed.published();
+                skipOverwritten(head);
+                continue;
+            }
+            batch.add(event);
+            cursor++;
+        }
+        return batch;
+    }
+
+    private void skipOverwritten(long head) {
+        long oldest = head - feed.capacity();
+        if (cursor < oldest) {
+            missed += oldest - cursor;
+            cursor = oldest;
+        }
+    }
+
+    public synchronized long lag() {
+        return feed.published() - cursor;
+    }
+
+    // Antal händelser som skrevs över innan konsumenten hann läsa dem
+    public synchronized long missedEvents() {
+        return missed;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.load;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// Lägger till fördröjning och slumpmässiga fel i de fejkade tjänsterna
+public record FaultInjector(
+        Duration latency,
+        Duration jitter,
+        double failureRate
+) {
+    public static final FaultInjector NONE = new FaultInjector(Duration.ZERO, Duration.ZERO, 0);
+
+    public FaultInjector {
+        if (latency.isNegative() || jitter.isNegative()) {
+            throw new IllegalArgumentException("Fördröjningen kan inte vara negativ");
+        }
+
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Felfrekvensen måste vara mellan 0 och 1");
+        }
+    }
+
+    // Väntar ut fördröjningen och returnerar true om anropet ska misslyckas
+    public boolean inject() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latency.toNanos() + (jitter.isZero() ? 0 : random.nextLong(jitter.toNanos() + 1));
+        if (delay > 0) {
+            LockSupport.parkNanos(delay);
+        }
+        return failureRate > 0 && random.nextDouble() < failureRate;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.load;
+
+import com.example.NotificationException;
+import com.example.payment.EmailService;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+public class InMemoryEmailService implements EmailService {
+    private final FaultInjector faults;
+    private final LongAdder sent = new LongAdder();
+
+    public InMemoryEmailService(FaultInjector faults) {
+        this.faults = faults;
+    }
+
+    @Override
+    public void sendPaymentConfirmation(String email, BigDecimal amount) throws NotificationException {
+        if (faults.inject()) {
+            throw new NotificationException("Injicerat fel i e-posttjänsten");
+        }
+        sent.increment();
+    }
+
+    public long sent() {
+        return sent.sum();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.load;
+
+import com.example.Booking;
+import com.example.NotificationException;
+import com.example.NotificationService;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+public class InMemoryNotificationService implements NotificationService {
+    private final FaultInjector faults;
+    private final LongAdder confirmations = new LongAdder();
+    private final LongAdder cancellations = new LongAdder();
+    // Bekräftade boknings-id:n, används av LoadDriver för att välja vad som ska avbokas
+    private final Queue<String> confirmedBookingIds = new ConcurrentLinkedQueue<>();
+
+    public InMemoryNotificationService(FaultInjector faults) {
+        this.faults = faults;
+    }
+
+    @Override
+    public void sendBookingConfirmation(Booking booking) throws NotificationException {
+        confirmedBookingIds.add(booking.getId());
+        if (faults.inject()) {
+            throw new NotificationException("Injicerat fel i notifieringstjänsten");
+        }
+        confirmations.increment();
+    }
+
+    @Override
+    public void sendCancellationConfirmation(Booking booking) throws NotificationException {
+        if (faults.inject()) {
+            throw new NotificationException("Injicerat fel i notifieringstjänsten");
+        }
+        cancellations.increment();
+    }
+
+    public String pollConfirmedBookingId() {
+        return confirmedBookingIds.poll();
+    }
+
+    public long confirmations() {
+        return confirmations.sum();
+    }
+
+    public long cancellations() {
+        return cancellations.sum();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.load;
+
+import com.example.payment.ExternalServiceException;
+import com.example.payment.PaymentApi;
+import com.example.payment.PaymentApiResponse;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class InMemoryPaymentApi implements PaymentApi {
+    private static final PaymentApiResponse APPROVED = new PaymentApiResponse(true);
+    private static final PaymentApiResponse DECLINED = new PaymentApiResponse(false);
+
+    private final FaultInjector faults;
+    private final double declineRate;
+
+    // faults styr tekniska fel (ExternalServiceException), declineRate andelen nekade betalningar
+    public InMemoryPaymentApi(FaultInjector faults, double declineRate) {
+        if (declineRate < 0 || declineRate > 1) {
+            throw new IllegalArgumentException("Andelen nekade betalningar måste vara mellan 0 och 1");
+        }
+        this.faults = faults;
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public PaymentApiResponse charge(String apiKey, BigDecimal amount) throws ExternalServiceException {
+        if (faults.inject()) {
+            throw new ExternalServiceException("Injicerat fel i betaltjänsten");
+        }
+        return ThreadLocalRandom.current().nextDouble() < declineRate ? DECLINED : APPROVED;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.load;
+
+import com.example.payment.PaymentRepository;
+import com.example.payment.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class InMemoryPaymentRepository implements PaymentRepository {
+    private final Map<String, LongAdder> savedByStatus = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(BigDecimal amount, String status) {
+        savedByStatus.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    public long saved(PaymentStatus status) {
+        LongAdder count = savedByStatus.get(status.name());
+        return count != null ? count.sum() : 0;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.load;
+
+import com.example.Room;
+import com.example.RoomRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+public class InMemoryRoomRepository implements RoomRepository {
+    // Sorterad på rum-id så att streamAll() kan läsas lat utan att sortera
+    private final ConcurrentSkipListMap<String, Room> rooms = new ConcurrentSkipListMap<>();
+    private final FaultInjector faults;
+
+    public InMemoryRoomRepository() {
+        this(FaultInjector.NONE);
+    }
+
+    public InMemoryRoomRepository(FaultInjector faults) {
+        this.faults = faults;
+    }
+
+    @Override
+    public Optional<Room> findById(String id) {
+        injectFault();
+        return Optional.ofNullable(rooms.get(id));
+    }
+
+    @Override
+    public List<Room> findAll() {
+        injectFault();
+        return new ArrayList<>(rooms.values());
+    }
+
+    @Override
+    public Stream<Room> streamAll() {
+        injectFault();
+        return rooms.values().stream();
+    }
+
+    @Override
+    public Stream<Room> streamFrom(String afterId) {
+        injectFault();
+        return rooms.tailMap(afterId, false).values().stream();
+    }
+
+    @Override
+    public void save(Room room) {
+        injectFault();
+        rooms.put(room.getId(), room);
+    }
+
+    @Override
+    public void saveAll(Collection<Room> batch) {
+        injectFault();
+        batch.forEach(room -> rooms.put(room.getId(), room));
+    }
+
+    private void injectFault() {
+        if (faults.inject()) {
+            throw new IllegalStateException("Injicerat fel i rumsregistret");
+        }
+    }
+}
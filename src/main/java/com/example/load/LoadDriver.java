@@ -0,0 +1,116 @@
+package com.example.load;
+
+import com.example.BookingSystem;
+import com.example.payment.PaymentException;
+import com.example.payment.PaymentProcessor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+// Öppen lastgenerator: anropen startas enligt schemat oavsett hur lång tid tidigare anrop tar,
+// och varje anrop körs på en egen virtuell tråd
+public class LoadDriver {
+    public enum Operation {
+        BOOK,
+        CANCEL,
+        PAY
+    }
+
+    private final BookingSystem bookingSystem;
+    private final PaymentProcessor paymentProcessor;
+    private final InMemoryNotificationService notificationService;
+    private final VirtualClock clock;
+    private final List<String> roomIds;
+    private final LongSupplier nanoClock;
+
+    public LoadDriver(BookingSystem bookingSystem, PaymentProcessor paymentProcessor,
+                      InMemoryNotificationService notificationService, VirtualClock clock, List<String> roomIds) {
+        this(bookingSystem, paymentProcessor, notificationService, clock, roomIds, System::nanoTime);
+    }
+
+    LoadDriver(BookingSystem bookingSystem, PaymentProcessor paymentProcessor,
+               InMemoryNotificationService notificationService, VirtualClock clock, List<String> roomIds,
+               LongSupplier nanoClock) {
+        if (roomIds.isEmpty()) {
+            throw new IllegalArgumentException("Lasttestet kräver minst ett rum");
+        }
+        this.bookingSystem = bookingSystem;
+        this.paymentProcessor = paymentProcessor;
+        this.notificationService = notificationService;
+        this.clock = clock;
+        this.roomIds = List.copyOf(roomIds);
+        this.nanoClock = nanoClock;
+    }
+
+    public LoadReport run(LoadProfile profile) {
+        Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyRecorder());
+            errors.put(operation, new LongAdder());
+        }
+
+        long interval = 1_000_000_000L / profile.targetRatePerSecond();
+        long total = profile.duration().toNanos() / interval;
+        long started = nanoClock.getAsLong();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long scheduled = started + i * interval;
+                long wait = scheduled - nanoClock.getAsLong();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Operation operation = profile.pick(ThreadLocalRandom.current().nextInt(profile.totalWeight()));
+                executor.execute(() -> {
+                    if (!execute(operation)) {
+                        errors.get(operation).increment();
+                    }
+                    latencies.get(operation).record(nanoClock.getAsLong() - scheduled);
+                });
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(nanoClock.getAsLong() - started);
+        Map<Operation, LoadReport.OperationStats> stats = new EnumMap<>(Operation.class);
+        latencies.forEach((operation, recorder) -> stats.put(operation, new LoadReport.OperationStats(
+                recorder.count(), errors.get(operation).sum(),
+                recorder.percentile(50), recorder.percentile(90), recorder.percentile(99), recorder.max())));
+        return new LoadReport(elapsed, stats);
+    }
+
+    // Returnerar false om anropet slutade med ett fel. Att ett rum är upptaget räknas inte som fel
+    private boolean execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            switch (operation) {
+                case BOOK -> {
+                    LocalDateTime start = clock.getCurrentTime().plusHours(1 + random.nextInt(24 * 30));
+                    bookingSystem.bookRoom(roomIds.get(random.nextInt(roomIds.size())), start, start.plusHours(1));
+                }
+                case CANCEL -> {
+                    String bookingId = notificationService.pollConfirmedBookingId();
+                    if (bookingId != null) {
+                        bookingSystem.cancelBooking(bookingId);
+                    }
+                }
+                case PAY -> paymentProcessor.processPayment("load@example.com",
+                        BigDecimal.valueOf(1 + random.nextInt(1000)));
+            }
+            return true;
+        } catch (PaymentException | RuntimeException e) {
+            return false;
+        }
+    }
+}
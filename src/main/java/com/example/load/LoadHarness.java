@@ -0,0 +1,45 @@
+package com.example.load;
+
+import com.example.BookingSystem;
+import com.example.Room;
+import com.example.payment.PaymentProcessor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Kopplar ihop BookingSystem och PaymentProcessor med in-memory-implementationerna
+public final class LoadHarness {
+    private LoadHarness() {
+    }
+
+    public static LoadDriver inMemory(int roomCount, FaultInjector faults, double declineRate) {
+        VirtualClock clock = new VirtualClock(LocalDateTime.of(2026, 1, 19, 8, 0));
+        InMemoryRoomRepository roomRepository = new InMemoryRoomRepository(faults);
+        InMemoryNotificationService notificationService = new InMemoryNotificationService(faults);
+
+        List<String> roomIds = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            String roomId = "room-" + i;
+            roomRepository.save(new Room(roomId, "Rum " + i));
+            roomIds.add(roomId);
+        }
+
+        BookingSystem bookingSystem = new BookingSystem(clock, roomRepository, notificationService);
+        PaymentProcessor paymentProcessor = new PaymentProcessor(() -> "load-test-key",
+                new InMemoryPaymentRepository(), new InMemoryPaymentApi(faults, declineRate),
+                new InMemoryEmailService(faults));
+
+        return new LoadDriver(bookingSystem, paymentProcessor, notificationService, clock, roomIds);
+    }
+
+    public static void main(String[] args) {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        LoadDriver driver = inMemory(200, new FaultInjector(Duration.ofMillis(1), Duration.ofMillis(2), 0.01), 0.05);
+        LoadReport report = driver.run(new LoadProfile(60, 20, 20, rate, Duration.ofSeconds(seconds)));
+        System.out.print(report.format());
+    }
+}
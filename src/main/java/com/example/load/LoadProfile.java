@@ -0,0 +1,41 @@
+package com.example.load;
+
+import java.time.Duration;
+
+// Vikterna anger hur stor andel av anropen som är bokningar, avbokningar och betalningar
+public record LoadProfile(
+        int bookWeight,
+        int cancelWeight,
+        int paymentWeight,
+        int targetRatePerSecond,
+        Duration duration
+) {
+    public LoadProfile {
+        if (bookWeight < 0 || cancelWeight < 0 || paymentWeight < 0
+                || bookWeight + cancelWeight + paymentWeight == 0) {
+            throw new IllegalArgumentException("Vikterna måste vara icke-negativa och minst en större än 0");
+        }
+
+        if (targetRatePerSecond < 1) {
+            throw new IllegalArgumentException("Målfrekvensen måste vara minst 1 anrop per sekund");
+        }
+
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Körtiden måste vara positiv");
+        }
+    }
+
+    LoadDriver.Operation pick(int roll) {
+        if (roll < bookWeight) {
+            return LoadDriver.Operation.BOOK;
+        }
+        if (roll < bookWeight + cancelWeight) {
+            return LoadDriver.Operation.CANCEL;
+        }
+        return LoadDriver.Operation.PAY;
+    }
+
+    int totalWeight() {
+        return bookWeight + cancelWeight + paymentWeight;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.load;
+
+import java.time.Duration;
+import java.util.Map;
+
+public record LoadReport(
+        Duration elapsed,
+        Map<LoadDriver.Operation, OperationStats> operations
+) {
+    // Latenserna i nanosekunder räknas från den planerade starttiden, så köande syns i percentilerna
+    public record OperationStats(long count, long errors, long p50, long p90, long p99, long max) {
+    }
+
+    public long totalCount() {
+        return operations.values().stream().mapToLong(OperationStats::count).sum();
+    }
+
+    public double throughputPerSecond() {
+        return totalCount() / (elapsed.toNanos() / 1_000_000_000.0);
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder(String.format("%d anrop på %d ms, %.1f anrop/s%n",
+                totalCount(), elapsed.toMillis(), throughputPerSecond()));
+        report.append(String.format("%-8s %8s %7s %10s %10s %10s %10s%n",
+                "op", "antal", "fel", "p50 µs", "p90 µs", "p99 µs", "max µs"));
+        operations.forEach((operation, stats) -> report.append(String.format("%-8s %8d %7d %10d %10d %10d %10d%n",
+                operation, stats.count(), stats.errors(),
+                stats.p50() / 1000, stats.p90() / 1000, stats.p99() / 1000, stats.max() / 1000)));
+        return report.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.load;
+
+import com.example.shop.Item;
+import com.example.shop.ItemPercentageDiscount;
+import com.example.shop.PriceCache;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+// Jämför Item.getPrice() med och utan PriceCache för olika antal rabatter. "samma" är en träff på posten
+// som artikeln själv lade in, "delad" en träff på en annan artikels post med lika nyckel.
+// Enkel mätning utan JMH, kör med samma JVM-flaggor som i produktion och läs siffrorna som riktvärden
+public final class PriceCacheBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int CALLS = 2_000_000;
+
+    private PriceCacheBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int[] discountCounts = {1, 2, 4, 8};
+        System.out.printf("%-8s %10s %10s %10s%n", "rabatter", "utan", "samma", "delad");
+        for (int count : discountCounts) {
+            PriceCache cache = new PriceCache(1_000);
+            Item plain = item(count, null);
+            Item cached = item(count, cache);
+            Item shared = item(count, cache);
+            cached.getPrice();
+
+            System.out.printf("%-8d %8.1f ns %8.1f ns %8.1f ns%n", count,
+                    nanosPerCall(plain::getPrice), nanosPerCall(cached::getPrice), nanosPerCall(shared::getPrice));
+        }
+    }
+
+    private static Item item(int discountCount, PriceCache cache) {
+        Item item = new Item("sku", new BigDecimal("199.99"), 1, cache);
+        for (int i = 0; i < discountCount; i++) {
+            item.addDiscount(new ItemPercentageDiscount(new BigDecimal("0.1" + i)));
+        }
+        return item;
+    }
+
+    private static double nanosPerCall(Supplier<BigDecimal> price) {
+        long sink = 0;
+        long elapsed = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                sink += price.get().scale();
+            }
+            elapsed = System.nanoTime() - started;
+        }
+        // Resultatet används så att JIT inte kan ta bort anropen
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return (double) elapsed / CALLS;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.load;
+
+import com.example.TimeProvider;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Styrbar klocka för lasttester, tiden står still tills den flyttas fram
+public class VirtualClock implements TimeProvider {
+    private final LocalDateTime origin;
+    private final AtomicLong elapsedNanos = new AtomicLong();
+
+    public VirtualClock(LocalDateTime origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public LocalDateTime getCurrentTime() {
+        return origin.plusNanos(elapsedNanos.get());
+    }
+
+    public void advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Klockan kan inte gå bakåt");
+        }
+        elapsedNanos.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,441 @@
+package com.example.offheap;
+
+import com.example.Booking;
+import com.example.BookingIndex;
+import com.example.RecurringBooking;
+import com.example.Room;
+import com.example.SortableBookingIdGenerator;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Rum vars bokningar ligger utanför heapen som en sorterad array av poster med fast bredd.
+// På heapen finns bara segmentet och några räknare, Booking-objekt skapas först när någon frågar efter dem.
+// Sorterbara boknings-id:n får plats som long direkt i posten. Andra id:n, t.ex. UUID:n från BookingSystem
+// utan nod-id, får en negativ nyckel i posten och en rad i en tabell på heapen, så de fungerar men sparar
+// mindre heap. Bokningsserier är få och små, de ligger kvar på heapen som en oföränderlig karta precis som i BookingIndex
+public class OffHeapRoom extends Room implements AutoCloseable {
+    // start, slut, id och senaste sluttiden bland posterna fram till och med denna
+    static final long RECORD_SIZE = 4L * Long.BYTES;
+    private static final long START = 0;
+    private static final long END = Long.BYTES;
+    private static final long ID = 2L * Long.BYTES;
+    private static final long LATEST_END = 3L * Long.BYTES;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Som i Room: läsningar hämtar aktuell version utan lås, skrivningar byter in en ny version atomärt.
+    // En version skrivs aldrig om efter att den publicerats, så en läsare ser alltid en hel array.
+    // null betyder att rummet är stängt
+    private final AtomicReference<State> state = new AtomicReference<>(State.empty());
+
+    public OffHeapRoom(String id, String name) {
+        super(id, name);
+    }
+
+    // Kopierar ett vanligt rum, bokningarna hamnar utanför heapen och serierna följer med som de är
+    public static OffHeapRoom copyOf(Room room) {
+        OffHeapRoom copy = new OffHeapRoom(room.getId(), room.getName());
+        copy.state.set(State.of(room.snapshot()));
+        return copy;
+    }
+
+    // Ersätter rummets innehåll med ett annat rums i ett svep. Den som redan har en referens till
+    // rummet ser antingen hela det gamla eller hela det nya innehållet
+    void copyFrom(Room room) {
+        State replacement = State.of(room.snapshot());
+        state.updateAndGet(current -> {
+            ensureOpen(current);
+            return replacement;
+        });
+    }
+
+    @Override
+    public BookingIndex snapshot() {
+        // Bygger en kopia på heapen, tänkt för enstaka läsningar och inte för den vanliga vägen
+        State current = open();
+        List<Booking> bookings = new ArrayList<>(current.size());
+        for (int i = 0; i < current.size(); i++) {
+            bookings.add(current.toBooking(getId(), i));
+        }
+        return BookingIndex.of(bookings, current.recurringBookings().values());
+    }
+
+    @Override
+    public boolean isAvailable(LocalDateTime startTime, LocalDateTime endTime) {
+        State current = open();
+        return current.isFree(toNanosSaturated(startTime), toNanosSaturated(endTime))
+                && current.recurringBookings().values().stream()
+                        .noneMatch(series -> series.overlaps(startTime, endTime));
+    }
+
+    @Override
+    public List<LocalDateTime> findConflicts(RecurringBooking candidate) {
+        State current = open();
+        List<LocalDateTime> conflicts = new ArrayList<>();
+        for (Iterator<Booking> it = candidate.occurrences().iterator(); it.hasNext(); ) {
+            Booking occurrence = it.next();
+            if (!current.isFree(toNanosSaturated(occurrence.getStartTime()), toNanosSaturated(occurrence.getEndTime()))
+                    || conflictsWithSeries(current.recurringBookings(), occurrence)) {
+                conflicts.add(occurrence.getStartTime());
+            }
+        }
+        return conflicts;
+    }
+
+    @Override
+    public void addBooking(Booking booking) {
+        long start = toNanos(booking.getStartTime());
+        long end = toNanos(booking.getEndTime());
+        state.updateAndGet(current -> {
+            ensureOpen(current);
+            return current.withRecord(start, end, booking.getId());
+        });
+    }
+
+    @Override
+    public void removeBooking(String bookingId) {
+        state.updateAndGet(current -> {
+            ensureOpen(current);
+            return current.withoutRecord(current.indexOf(bookingId));
+        });
+    }
+
+    @Override
+    public boolean hasBooking(String bookingId) {
+        return open().indexOf(bookingId) >= 0;
+    }
+
+    @Override
+    public Booking getBooking(String bookingId) {
+        State current = open();
+        int position = current.indexOf(bookingId);
+        if (position < 0) {
+            throw new IllegalArgumentException("Bokning finns inte");
+        }
+        return current.toBooking(getId(), position);
+    }
+
+    // En serie med samma id ersätts, t.ex. när ett undantag har lagts till
+    @Override
+    public void addRecurringBooking(RecurringBooking series) {
+        state.updateAndGet(current -> {
+            ensureOpen(current);
+            Map<String, RecurringBooking> updated = new LinkedHashMap<>(current.recurringBookings());
+            updated.put(series.getId(), series);
+            return current.withRecurringBookings(updated);
+        });
+    }
+
+    @Override
+    public void removeRecurringBooking(String seriesId) {
+        state.updateAndGet(current -> {
+            ensureOpen(current);
+            if (!current.recurringBookings().containsKey(seriesId)) {
+                return current;
+            }
+            Map<String, RecurringBooking> updated = new LinkedHashMap<>(current.recurringBookings());
+            updated.remove(seriesId);
+            return current.withRecurringBookings(updated);
+        });
+    }
+
+    @Override
+    public boolean hasRecurringBooking(String seriesId) {
+        return open().recurringBookings().containsKey(seriesId);
+    }
+
+    @Override
+    public RecurringBooking getRecurringBooking(String seriesId) {
+        RecurringBooking series = open().recurringBookings().get(seriesId);
+        if (series == null) {
+            throw new IllegalArgumentException("Bokningsserie finns inte");
+        }
+        return series;
+    }
+
+    public int getBookingCount() {
+        State current = state.get();
+        return current == null ? 0 : current.size();
+    }
+
+    // Antal byte utanför heapen som rummet håller just nu
+    public long getReservedBytes() {
+        State current = state.get();
+        return current == null ? 0 : current.records().byteSize();
+    }
+
+    // Segmenten hör till automatiska arenor och lämnas tillbaka när ingen version längre refererar till dem,
+    // så att stänga rummet släpper bara den aktuella versionen. En läsare som redan har den läser klart
+    @Override
+    public void close() {
+        state.set(null);
+    }
+
+    private State open() {
+        State current = state.get();
+        ensureOpen(current);
+        return current;
+    }
+
+    private static void ensureOpen(State current) {
+        if (current == null) {
+            throw new IllegalStateException("Rummet är stängt");
+        }
+    }
+
+    private static boolean conflictsWithSeries(Map<String, RecurringBooking> series, Booking occurrence) {
+        return series.values().stream()
+                .anyMatch(s -> s.overlaps(occurrence.getStartTime(), occurrence.getEndTime()));
+    }
+
+    // Varje ny version får ett eget segment i en automatisk arena. Då behöver ingen arena stängas
+    // medan andra trådar kan läsa den, det gamla segmentet frigörs när skräpsamlaren hittar det
+    private static MemorySegment allocate(int capacity) {
+        return Arena.ofAuto().allocate(capacity * RECORD_SIZE, Long.BYTES);
+    }
+
+    // foreignKeys och foreignIds översätter åt båda hållen mellan id:n som inte är sorterbara och deras
+    // negativa nycklar, nextForeignKey är nästa lediga nyckel
+    private record State(MemorySegment records, int size, Map<String, RecurringBooking> recurringBookings,
+                         Map<String, Long> foreignKeys, Map<Long, String> foreignIds, long nextForeignKey) {
+        static State empty() {
+            return new State(allocate(INITIAL_CAPACITY), 0, Map.of(), Map.of(), Map.of(), -1);
+        }
+
+        // Bygger versionen i ett svep istället för en bokning i taget
+        static State of(BookingIndex index) {
+            Map<String, Long> foreignKeys = new HashMap<>();
+            Map<Long, String> foreignIds = new HashMap<>();
+            List<long[]> sorted = new ArrayList<>();
+            for (Booking booking : index.getBookings()) {
+                long key = sortableKey(booking.getId());
+                if (key < 0) {
+                    key = foreignKeys.computeIfAbsent(booking.getId(), id -> -1L - foreignKeys.size());
+                    foreignIds.put(key, booking.getId());
+                }
+                sorted.add(new long[] {toNanos(booking.getStartTime()), toNanos(booking.getEndTime()), key});
+            }
+            sorted.sort(Comparator.<long[]>comparingLong(r -> r[0]).thenComparingLong(r -> r[2]));
+
+            int capacity = INITIAL_CAPACITY;
+            while (capacity < sorted.size()) {
+                capacity *= 2;
+            }
+            MemorySegment records = allocate(capacity);
+            int size = 0;
+            for (long[] record : sorted) {
+                if (size > 0 && startAt(records, size - 1) == record[0] && idAt(records, size - 1) == record[2]) {
+                    continue;
+                }
+                write(records, size++, record[0], record[1], record[2]);
+            }
+            updateLatestEnds(records, size, 0);
+
+            Map<String, RecurringBooking> series = new LinkedHashMap<>();
+            index.getRecurringBookings().forEach(s -> series.put(s.getId(), s));
+            return new State(records, size, Collections.unmodifiableMap(series),
+                    Collections.unmodifiableMap(foreignKeys), Collections.unmodifiableMap(foreignIds),
+                    -1L - foreignKeys.size());
+        }
+
+        State withRecord(long start, long end, String bookingId) {
+            Long known = keyOf(bookingId);
+            long id = known != null ? known : nextForeignKey;
+            int position = lowerBound(start, id);
+            if (position < size && startAt(records, position) == start && idAt(records, position) == id) {
+                return this;
+            }
+
+            long capacity = records.byteSize() / RECORD_SIZE;
+            MemorySegment next = allocate((int) (size == capacity ? capacity * 2 : capacity));
+            MemorySegment.copy(records, 0, next, 0, position * RECORD_SIZE);
+            MemorySegment.copy(records, position * RECORD_SIZE, next, (position + 1) * RECORD_SIZE,
+                    (size - position) * RECORD_SIZE);
+            write(next, position, start, end, id);
+            updateLatestEnds(next, size + 1, position);
+            if (known != null) {
+                return new State(next, size + 1, recurringBookings, foreignKeys, foreignIds, nextForeignKey);
+            }
+
+            Map<String, Long> keys = new HashMap<>(foreignKeys);
+            Map<Long, String> ids = new HashMap<>(foreignIds);
+            keys.put(bookingId, id);
+            ids.put(id, bookingId);
+            return new State(next, size + 1, recurringBookings, Collections.unmodifiableMap(keys),
+                    Collections.unmodifiableMap(ids), nextForeignKey - 1);
+        }
+
+        State withoutRecord(int position) {
+            if (position < 0) {
+                return this;
+            }
+
+            long capacity = records.byteSize() / RECORD_SIZE;
+            MemorySegment next = allocate((int) (capacity > INITIAL_CAPACITY && size - 1 < capacity / 4
+                    ? capacity / 2 : capacity));
+            MemorySegment.copy(records, 0, next, 0, position * RECORD_SIZE);
+            MemorySegment.copy(records, (position + 1) * RECORD_SIZE, next, position * RECORD_SIZE,
+                    (size - position - 1) * RECORD_SIZE);
+            updateLatestEnds(next, size - 1, position);
+
+            long id = idAt(records, position);
+            if (id >= 0) {
+                return new State(next, size - 1, recurringBookings, foreignKeys, foreignIds, nextForeignKey);
+            }
+            Map<String, Long> keys = new HashMap<>(foreignKeys);
+            Map<Long, String> ids = new HashMap<>(foreignIds);
+            keys.remove(ids.remove(id));
+            return new State(next, size - 1, recurringBookings, Collections.unmodifiableMap(keys),
+                    Collections.unmodifiableMap(ids), nextForeignKey);
+        }
+
+        State withRecurringBookings(Map<String, RecurringBooking> updated) {
+            return new State(records, size, Collections.unmodifiableMap(updated), foreignKeys, foreignIds,
+                    nextForeignKey);
+        }
+
+        boolean isFree(long start, long end) {
+            // Samma regel som BookingIndex: bland posterna som startar senast vid end får ingen sluta vid start eller senare
+            int startedBefore = upperBound(end);
+            return startedBefore == 0 || latestEndAt(records, startedBefore - 1) < start;
+        }
+
+        // Id:t säger inget om starttiden, så här återstår bara att gå igenom posterna
+        int indexOf(String bookingId) {
+            Long id = keyOf(bookingId);
+            if (id == null) {
+                return -1;
+            }
+            for (int i = 0; i < size; i++) {
+                if (idAt(records, i) == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Booking toBooking(String roomId, int position) {
+            long offset = position * RECORD_SIZE;
+            long id = records.get(ValueLayout.JAVA_LONG, offset + ID);
+            return new Booking(
+                    id >= 0 ? SortableBookingIdGenerator.encode(id) : foreignIds.get(id),
+                    roomId,
+                    fromNanos(records.get(ValueLayout.JAVA_LONG, offset + START)),
+                    fromNanos(records.get(ValueLayout.JAVA_LONG, offset + END)));
+        }
+
+        // Nyckeln som id:t har eller skulle ha i posten, null om det inte är sorterbart och inte finns i tabellen
+        private Long keyOf(String bookingId) {
+            long key = sortableKey(bookingId);
+            return key >= 0 ? Long.valueOf(key) : foreignKeys.get(bookingId);
+        }
+
+        // Första posten som inte sorteras före (start, id)
+        private int lowerBound(long start, long id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                long midStart = startAt(records, mid);
+                if (midStart < start || (midStart == start && idAt(records, mid) < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Antal poster som startar senast vid time
+        private int upperBound(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (startAt(records, mid) <= time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static void write(MemorySegment records, int position, long start, long end, long id) {
+        long offset = position * RECORD_SIZE;
+        records.set(ValueLayout.JAVA_LONG, offset + START, start);
+        records.set(ValueLayout.JAVA_LONG, offset + END, end);
+        records.set(ValueLayout.JAVA_LONG, offset + ID, id);
+    }
+
+    private static void updateLatestEnds(MemorySegment records, int size, int from) {
+        long latest = from > 0 ? latestEndAt(records, from - 1) : Long.MIN_VALUE;
+        for (int i = from; i < size; i++) {
+            latest = Math.max(latest, records.get(ValueLayout.JAVA_LONG, i * RECORD_SIZE + END));
+            records.set(ValueLayout.JAVA_LONG, i * RECORD_SIZE + LATEST_END, latest);
+        }
+    }
+
+    private static long startAt(MemorySegment records, int position) {
+        return records.get(ValueLayout.JAVA_LONG, position * RECORD_SIZE + START);
+    }
+
+    private static long idAt(MemorySegment records, int position) {
+        return records.get(ValueLayout.JAVA_LONG, position * RECORD_SIZE + ID);
+    }
+
+    private static long latestEndAt(MemorySegment records, int position) {
+        return records.get(ValueLayout.JAVA_LONG, position * RECORD_SIZE + LATEST_END);
+    }
+
+    // Id:t som long om det är ett sorterbart id skrivet på det sätt generatorn skriver det, annars -1.
+    // decode tar även emot gemener och id:n som blir negativa, de skulle inte komma tillbaka likadana
+    private static long sortableKey(String bookingId) {
+        if (bookingId == null) {
+            return -1;
+        }
+        try {
+            long id = SortableBookingIdGenerator.decode(bookingId);
+            return id >= 0 && SortableBookingIdGenerator.encode(id).equals(bookingId) ? id : -1;
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    // Nanosekunder sedan 1970 i UTC räcker till år 2262
+    private static long toNanos(LocalDateTime time) {
+        try {
+            return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), time.getNano());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Tiden går inte att lagra utanför heapen: " + time);
+        }
+    }
+
+    // Tider utanför intervallet kan inte krocka exakt med en lagrad tid, så för frågor räcker det att mätta
+    private static long toNanosSaturated(LocalDateTime time) {
+        try {
+            return toNanos(time);
+        } catch (IllegalArgumentException e) {
+            return time.getYear() < 1970 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private static LocalDateTime fromNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.offheap;
+
+import com.example.Room;
+import com.example.RoomRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+// Rumsregister där bokningarna ligger utanför heapen. Att stänga registret stänger alla rum i det
+public class OffHeapRoomRepository implements RoomRepository, AutoCloseable {
+    // Sorterad på rum-id så att streamAll() kan läsas lat utan att sortera
+    private final ConcurrentSkipListMap<String, OffHeapRoom> rooms = new ConcurrentSkipListMap<>();
+
+    public OffHeapRoom createRoom(String id, String name) {
+        OffHeapRoom room = new OffHeapRoom(id, name);
+        if (rooms.putIfAbsent(id, room) != null) {
+            room.close();
+            throw new IllegalArgumentException("Rummet finns redan: " + id);
+        }
+        return room;
+    }
+
+    @Override
+    public Optional<Room> findById(String id) {
+        return Optional.ofNullable(rooms.get(id));
+    }
+
+    @Override
+    public List<Room> findAll() {
+        return new ArrayList<>(rooms.values());
+    }
+
+    @Override
+    public Stream<Room> streamAll() {
+        return rooms.values().stream().map(Room.class::cast);
+    }
+
+    @Override
+    public Stream<Room> streamFrom(String afterId) {
+        return rooms.tailMap(afterId, false).values().stream().map(Room.class::cast);
+    }
+
+    // Vanliga rum kopieras utanför heapen. Finns rummet redan skrivs kopian in i det befintliga rummet,
+    // så att trådar som har hämtat det fortsätter att se aktuella bokningar. Ett rum som ersätts stängs
+    // aldrig, andra trådar kan fortfarande använda det och minnet frigörs när ingen refererar till det
+    @Override
+    public void save(Room room) {
+        if (room instanceof OffHeapRoom offHeap) {
+            rooms.put(offHeap.getId(), offHeap);
+            return;
+        }
+        OffHeapRoom existing = rooms.get(room.getId());
+        if (existing != null && existing.getName().equals(room.getName())) {
+            existing.copyFrom(room);
+        } else {
+            rooms.put(room.getId(), OffHeapRoom.copyOf(room));
+        }
+    }
+
+    public long getReservedBytes() {
+        return rooms.values().stream().mapToLong(OffHeapRoom::getReservedBytes).sum();
+    }
+
+    @Override
+    public void close() {
+        rooms.values().forEach(OffHeapRoom::close);
+        rooms.clear();
+    }
+}
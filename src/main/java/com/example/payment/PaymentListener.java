@@ -0,0 +1,12 @@
+package com.example.payment;
+
+import java.math.BigDecimal;
+
+// Called by PaymentProcessor after the payment attempt has been saved for audit
+public interface PaymentListener {
+    default void paymentSucceeded(String email, BigDecimal amount) {
+    }
+
+    default void paymentFailed(String email, BigDecimal amount, String reason) {
+    }
+}
@@ -3,12 +3,15 @@ package com.example.payment;
 import com.example.NotificationException;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class PaymentProcessor {
     private final PaymentConfig paymentConfig;
     private final PaymentRepository paymentRepository;
     private final PaymentApi paymentApi;
     private final EmailService emailService;
+    private final List<PaymentListener> listeners = new CopyOnWriteArrayList<>();
 
     public PaymentProcessor(
             PaymentConfig paymentConfig,
@@ -21,6 +24,13 @@ public class PaymentProcessor {
         this.emailService = emailService;
     }
 
+    public void addPaymentListener(PaymentListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
     public boolean processPayment(String email, BigDecimal amount) throws PaymentException {
         if (email == null || amount == null) {
             throw new IllegalArgumentException("Email and amount cannot be null");
@@ -40,16 +50,19 @@ public class PaymentProcessor {
             // so that we can implement internal retry functions without having the customer
             // go through the process one more time
             paymentRepository.save(amount, PaymentStatus.FAILED.name());
+            listeners.forEach(listener -> listener.paymentFailed(email, amount, e.getMessage()));
             throw new PaymentException("External payment service error: ", e);
         }
 
         // save both failed and successful payments for audit
         if (!response.success()) {
             paymentRepository.save(amount, PaymentStatus.FAILED.name());
+            listeners.forEach(listener -> listener.paymentFailed(email, amount, "Payment declined"));
             throw new PaymentException("Payment failed with amount: " + amount);
         }
 
         paymentRepository.save(amount, PaymentStatus.SUCCESS.name());
+        listeners.forEach(listener -> listener.paymentSucceeded(email, amount));
 
         try {
             emailService.sendPaymentConfirmation(email, amount);
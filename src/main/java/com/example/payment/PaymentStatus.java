@@ -1,6 +1,7 @@
 package com.example.payment;
 
 public enum PaymentStatus {
+    PENDING,
     SUCCESS,
     FAILED
 }
@@ -0,0 +1,10 @@
+package com.example.shard;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingShard {
+    boolean bookRoom(String roomId, LocalDateTime startTime, LocalDateTime endTime);
+    boolean cancelBooking(String bookingId);
+    List<String> getAvailableRoomIds(LocalDateTime startTime, LocalDateTime endTime);
+}
@@ -0,0 +1,47 @@
+package com.example.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class ConsistentHashRing {
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<Integer> shardIds, int virtualNodesPerShard) {
+        if (shardIds == null || shardIds.isEmpty()) {
+            throw new IllegalArgumentException("Minst en shard krävs");
+        }
+
+        if (virtualNodesPerShard < 1) {
+            throw new IllegalArgumentException("Antal virtuella noder måste vara minst 1");
+        }
+
+        // Varje shard placeras på flera punkter på ringen så att rummen sprids jämnt
+        // och bara ungefär 1/n av rummen flyttar när en shard läggs till eller tas bort
+        for (int shardId : shardIds) {
+            for (int i = 0; i < virtualNodesPerShard; i++) {
+                ring.put(hash("shard-" + shardId + "#" + i), shardId);
+            }
+        }
+    }
+
+    public int shardFor(String roomId) {
+        Map.Entry<Long, Integer> owner = ring.ceilingEntry(hash(roomId));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    // FNV-1a följt av en avslutande mixning, stabil mellan JVM:er till skillnad från String.hashCode
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.shard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+// Anropen går över en liten pool av anslutningar så att samtidiga anrop till samma shard
+// inte behöver vänta på varandra. Varje anslutning används av ett anrop i taget
+public class RemoteBookingShard implements BookingShard, AutoCloseable {
+    public static final int DEFAULT_MAX_CONNECTIONS = 4;
+
+    private final InetAddress address;
+    private final int port;
+    private final ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+    // Semaphore istället för synchronized så att virtuella trådar inte låses fast medan de väntar
+    private final Semaphore permits;
+    private volatile boolean closed;
+
+    private record Connection(Socket socket, DataInputStream in, DataOutputStream out) {
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Anslutningen slängs ändå
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T execute(DataInputStream in, DataOutputStream out) throws IOException;
+    }
+
+    public RemoteBookingShard(InetAddress address, int port) {
+        this(address, port, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    public RemoteBookingShard(InetAddress address, int port, int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("Poolen måste tillåta minst en anslutning");
+        }
+        this.address = address;
+        this.port = port;
+        this.permits = new Semaphore(maxConnections);
+        // Första anslutningen öppnas direkt så att en shard som inte svarar upptäcks vid start
+        idle.add(connect());
+    }
+
+    @Override
+    public boolean bookRoom(String roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        return call((in, out) -> {
+            out.writeByte(ShardProtocol.BOOK);
+            out.writeUTF(roomId);
+            ShardProtocol.writeTime(out, startTime);
+            ShardProtocol.writeTime(out, endTime);
+            out.flush();
+            readStatus(in);
+            return in.readBoolean();
+        });
+    }
+
+    @Override
+    public boolean cancelBooking(String bookingId) {
+        return call((in, out) -> {
+            out.writeByte(ShardProtocol.CANCEL);
+            out.writeUTF(bookingId);
+            out.flush();
+            readStatus(in);
+            return in.readBoolean();
+        });
+    }
+
+    @Override
+    public List<String> getAvailableRoomIds(LocalDateTime startTime, LocalDateTime endTime) {
+        return call((in, out) -> {
+            out.writeByte(ShardProtocol.AVAILABLE);
+            ShardProtocol.writeTime(out, startTime);
+            ShardProtocol.writeTime(out, endTime);
+            out.flush();
+            readStatus(in);
+            int count = in.readInt();
+            List<String> roomIds = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                roomIds.add(in.readUTF());
+            }
+            return roomIds;
+        });
+    }
+
+    private <T> T call(Call<T> call) {
+        if (closed) {
+            throw new IllegalStateException("Anslutningen till sharden är stängd");
+        }
+
+        permits.acquireUninterruptibly();
+        Connection connection = null;
+        boolean reusable = false;
+        try {
+            connection = idle.poll();
+            if (connection == null) {
+                connection = connect();
+            }
+            T result = call.execute(connection.in(), connection.out());
+            reusable = true;
+            return result;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Hela svaret är läst, så anslutningen kan användas igen
+            reusable = true;
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (connection != null) {
+                // En anslutning som fick ett I/O-fel kan ha halvlästa svar kvar och slängs
+                if (reusable && !closed) {
+                    idle.add(connection);
+                } else {
+                    connection.close();
+                }
+            }
+            permits.release();
+        }
+    }
+
+    private Connection connect() {
+        try {
+            Socket socket = new Socket(address, port);
+            socket.setTcpNoDelay(true);
+            return new Connection(socket,
+                    new DataInputStream(new BufferedInputStream(socket.getInputStream())),
+                    new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Kunde inte ansluta till shard på port " + port, e);
+        }
+    }
+
+    // Fel från sharden kastas vidare med samma typ som BookingSystem hade kastat lokalt
+    private static void readStatus(DataInputStream in) throws IOException {
+        byte status = in.readByte();
+        if (status == ShardProtocol.OK) {
+            return;
+        }
+
+        String message = in.readUTF();
+        switch (status) {
+            case ShardProtocol.ILLEGAL_ARGUMENT -> throw new IllegalArgumentException(message);
+            case ShardProtocol.ILLEGAL_STATE -> throw new IllegalStateException(message);
+            default -> throw new IOException("Shard-fel: " + message);
+        }
+    }
+
+    // Anslutningar som används just nu stängs när deras anrop är klart
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+}
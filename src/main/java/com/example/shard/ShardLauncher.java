@@ -0,0 +1,46 @@
+package com.example.shard;
+
+import com.example.BookingSystem;
+import com.example.load.FaultInjector;
+import com.example.load.InMemoryNotificationService;
+import com.example.load.InMemoryRoomRepository;
+import com.example.snapshot.SnapshotLoader;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+// Kör en shard som en egen JVM:
+//   java com.example.shard.ShardLauncher <shard-id> <port> [bindadress] [ögonblicksbild]
+// Utan bindadress lyssnar servern bara på loopback. Rummen läses från ögonblicksbilden om en anges
+public final class ShardLauncher {
+    private ShardLauncher() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2 || args.length > 4) {
+            System.err.println("Användning: ShardLauncher <shard-id> <port> [bindadress] [ögonblicksbild]");
+            System.exit(2);
+        }
+
+        int shardId = Integer.parseInt(args[0]);
+        int port = Integer.parseInt(args[1]);
+        InetAddress bindAddress = args.length > 2 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+
+        InMemoryRoomRepository roomRepository = new InMemoryRoomRepository();
+        if (args.length > 3) {
+            SnapshotLoader.load(Path.of(args[3]), roomRepository);
+        }
+
+        BookingSystem bookingSystem = new BookingSystem(LocalDateTime::now, roomRepository,
+                new InMemoryNotificationService(FaultInjector.NONE));
+        bookingSystem.setBookingIdGenerator(ShardedBookingSystem.bookingIdGenerator(shardId));
+
+        ShardServer server = new ShardServer(bookingSystem, bindAddress, port);
+        Runtime.getRuntime().addShutdownHook(Thread.ofPlatform().unstarted(server::close));
+        server.start();
+        System.out.println("Shard " + shardId + " lyssnar på " + bindAddress.getHostAddress() + ":" + server.getPort());
+        server.awaitClose();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.shard;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+final class ShardProtocol {
+    static final byte BOOK = 1;
+    static final byte CANCEL = 2;
+    static final byte AVAILABLE = 3;
+
+    static final byte OK = 0;
+    static final byte ILLEGAL_ARGUMENT = 1;
+    static final byte ILLEGAL_STATE = 2;
+    static final byte ERROR = 3;
+
+    private ShardProtocol() {
+    }
+
+    static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeUTF(time.toString());
+    }
+
+    static LocalDateTime readTime(DataInputStream in) throws IOException {
+        return LocalDateTime.parse(in.readUTF());
+    }
+}
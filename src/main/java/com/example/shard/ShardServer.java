@@ -0,0 +1,145 @@
+package com.example.shard;
+
+import com.example.BookingSystem;
+import com.example.Room;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ShardServer implements AutoCloseable {
+    private final BookingSystem bookingSystem;
+    private final ServerSocket serverSocket;
+    private Thread acceptThread;
+
+    // Port 0 låter operativsystemet välja en ledig port, se getPort(). Anslutningar tas emot först efter start()
+    public ShardServer(BookingSystem bookingSystem, int port) {
+        this(bookingSystem, InetAddress.getLoopbackAddress(), port);
+    }
+
+    // Med en annan bindadress än loopback kan shards på andra värdar nå servern
+    public ShardServer(BookingSystem bookingSystem, InetAddress bindAddress, int port) {
+        this.bookingSystem = bookingSystem;
+        try {
+            this.serverSocket = new ServerSocket(port, 50, bindAddress);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Kunde inte starta shard-server", e);
+        }
+    }
+
+    public synchronized void start() {
+        if (acceptThread != null) {
+            throw new IllegalStateException("Servern är redan startad");
+        }
+        acceptThread = Thread.ofPlatform().daemon().name("shard-accept-" + getPort()).start(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    // Väntar tills servern har stängts, t.ex. från main i en egen JVM
+    public void awaitClose() throws InterruptedException {
+        Thread running;
+        synchronized (this) {
+            running = acceptThread;
+        }
+        if (running == null) {
+            throw new IllegalStateException("Servern är inte startad");
+        }
+        running.join();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread.ofVirtual().start(() -> serve(socket));
+            } catch (IOException e) {
+                // Socketen stängdes av close()
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                handle(op, in, out);
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // Klienten kopplade ner
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void handle(byte op, DataInputStream in, DataOutputStream out) throws IOException {
+        try {
+            switch (op) {
+                case ShardProtocol.BOOK -> {
+                    String roomId = in.readUTF();
+                    LocalDateTime start = ShardProtocol.readTime(in);
+                    LocalDateTime end = ShardProtocol.readTime(in);
+                    boolean booked = bookingSystem.bookRoom(roomId, start, end);
+                    out.writeByte(ShardProtocol.OK);
+                    out.writeBoolean(booked);
+                }
+                case ShardProtocol.CANCEL -> {
+                    boolean cancelled = bookingSystem.cancelBooking(in.readUTF());
+                    out.writeByte(ShardProtocol.OK);
+                    out.writeBoolean(cancelled);
+                }
+                case ShardProtocol.AVAILABLE -> {
+                    LocalDateTime start = ShardProtocol.readTime(in);
+                    LocalDateTime end = ShardProtocol.readTime(in);
+                    List<Room> rooms = bookingSystem.getAvailableRooms(start, end);
+                    out.writeByte(ShardProtocol.OK);
+                    out.writeInt(rooms.size());
+                    for (Room room : rooms) {
+                        out.writeUTF(room.getId());
+                    }
+                }
+                default -> throw new IOException("Okänd operation: " + op);
+            }
+        } catch (IllegalArgumentException e) {
+            writeError(out, ShardProtocol.ILLEGAL_ARGUMENT, e);
+        } catch (IllegalStateException e) {
+            writeError(out, ShardProtocol.ILLEGAL_STATE, e);
+        } catch (RuntimeException e) {
+            writeError(out, ShardProtocol.ERROR, e);
+        }
+    }
+
+    private void writeError(DataOutputStream out, byte status, RuntimeException e) throws IOException {
+        out.writeByte(status);
+        out.writeUTF(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
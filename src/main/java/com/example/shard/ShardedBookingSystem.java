@@ -0,0 +1,93 @@
+package com.example.shard;
+
+import com.example.BookingIdGenerator;
+import com.example.SortableBookingIdGenerator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+public class ShardedBookingSystem {
+    private final Map<Integer, BookingShard> shards;
+    private final ConsistentHashRing ring;
+    private final Executor executor;
+
+    public ShardedBookingSystem(Map<Integer, BookingShard> shards, int virtualNodesPerShard, Executor executor) {
+        if (shards.keySet().stream().anyMatch(id -> id < 0 || id > SortableBookingIdGenerator.MAX_NODE_ID)) {
+            throw new IllegalArgumentException("Shard-id måste vara mellan 0 och " + SortableBookingIdGenerator.MAX_NODE_ID);
+        }
+        this.shards = Map.copyOf(shards);
+        this.ring = new ConsistentHashRing(this.shards.keySet(), virtualNodesPerShard);
+        this.executor = executor;
+    }
+
+    // Varje shards BookingSystem ska använda denna så att avbokningar kan routas direkt till ägaren,
+    // shard-numret ligger i id:ts nod-bitar
+    public static BookingIdGenerator bookingIdGenerator(int shardId) {
+        return new SortableBookingIdGenerator(shardId);
+    }
+
+    public int shardFor(String roomId) {
+        return ring.shardFor(roomId);
+    }
+
+    public boolean bookRoom(String roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null || roomId == null) {
+            throw new IllegalArgumentException("Bokning kräver giltiga start- och sluttider samt rum-id");
+        }
+
+        return shards.get(ring.shardFor(roomId)).bookRoom(roomId, startTime, endTime);
+    }
+
+    public boolean cancelBooking(String bookingId) {
+        if (bookingId == null) {
+            throw new IllegalArgumentException("Boknings-id kan inte vara null");
+        }
+
+        BookingShard owner = ownerOf(bookingId);
+        if (owner == null) {
+            return false;
+        }
+
+        return owner.cancelBooking(bookingId);
+    }
+
+    public List<String> getAvailableRoomIds(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            throw new IllegalArgumentException("Måste ange både start- och sluttid");
+        }
+
+        // Alla shards frågas parallellt och svaren slås ihop när de har kommit in
+        List<CompletableFuture<List<String>>> responses = shards.values().stream()
+                .map(shard -> CompletableFuture.supplyAsync(
+                        () -> shard.getAvailableRoomIds(startTime, endTime), executor))
+                .toList();
+
+        List<String> roomIds = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<String>> response : responses) {
+                roomIds.addAll(response.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        roomIds.sort(null);
+        return roomIds;
+    }
+
+    private BookingShard ownerOf(String bookingId) {
+        try {
+            return shards.get(SortableBookingIdGenerator.nodeOf(SortableBookingIdGenerator.decode(bookingId)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -9,14 +9,33 @@ public class Item {
     private final BigDecimal price;
     private int quantity;
     private final List<Discount> discounts = new ArrayList<>();
+    private final PriceCache priceCache;
+    // Rebuilt only when a discount is added
+    private PriceCache.Key priceKey;
 
     public Item(String id, BigDecimal price, int quantity) {
+        this(id, price, quantity, null);
+    }
+
+    // Items sharing a price cache reuse each other's discounted prices
+    public Item(String id, BigDecimal price, int quantity, PriceCache priceCache) {
         this.id = id;
         this.price = price;
+        this.priceCache = priceCache;
         setQuantity(quantity);
     }
 
     public BigDecimal getPrice() {
+        if (priceCache == null) {
+            return applyDiscounts();
+        }
+        if (priceKey == null) {
+            priceKey = priceCache.keyFor(price, discounts);
+        }
+        return priceCache.getPrice(priceKey, this::applyDiscounts);
+    }
+
+    private BigDecimal applyDiscounts() {
         BigDecimal discountedPrice = price;
         for (Discount discount : discounts) {
             discountedPrice = discount.apply(discountedPrice);
@@ -24,8 +43,13 @@ public class Item {
         return discountedPrice;
     }
 
+    public String getId() {
+        return id;
+    }
+
     public void addDiscount(Discount discount) {
         discounts.add(discount);
+        priceKey = null;
     }
 
     private void setQuantity(int quantity) {
@@ -19,4 +19,16 @@ public class ItemPercentageDiscount implements Discount {
     public BigDecimal apply(BigDecimal originalPrice) {
         return originalPrice.multiply(BigDecimal.ONE.subtract(percentage));
     }
-}
\ No newline at end of file
+
+    // Equal discounts give equal prices, which lets PriceCache share entries between items.
+    // Scale counts, like for BigDecimal itself, since it affects the scale of the result
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ItemPercentageDiscount other && percentage.equals(other.percentage);
+    }
+
+    @Override
+    public int hashCode() {
+        return percentage.hashCode();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.shop;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Shared discounted unit prices, keyed by base price and the ordered discount list.
+// BigDecimal keys are scale sensitive on purpose since 100.0 and 100.00 give differently scaled results.
+// A hit costs about the same as one or two BigDecimal.multiply calls whatever the number of discounts,
+// so the cache pays off from two discounts per item; PriceCacheBenchmark measures it
+public class PriceCache {
+    private final int maxEntries;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Built once per item and discount list rather than per lookup, so a hit neither rehashes the
+    // discounts nor copies the list. Items share the stored instance, so a hit compares by identity
+    public static final class Key {
+        private final BigDecimal basePrice;
+        private final List<Discount> discounts;
+        private final int hash;
+
+        private Key(BigDecimal basePrice, List<Discount> discounts) {
+            this.basePrice = basePrice;
+            this.discounts = List.copyOf(discounts);
+            this.hash = 31 * basePrice.hashCode() + this.discounts.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && hash == other.hash
+                    && basePrice.equals(other.basePrice) && discounts.equals(other.discounts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Entries from an older generation are treated as missing, so invalidateAll() never has to touch them
+    private record Entry(Key key, BigDecimal price, long generation) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    public PriceCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache must hold at least one entry");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    // Returns the key of an equal entry when there is one, so that every item with the same price
+    // and discounts holds the same instance
+    public Key keyFor(BigDecimal basePrice, List<Discount> discounts) {
+        Key key = new Key(basePrice, discounts);
+        Entry existing = entries.get(key);
+        return existing != null ? existing.key() : key;
+    }
+
+    // The loader must compute the price from basePrice and discounts only
+    public BigDecimal getPrice(BigDecimal basePrice, List<Discount> discounts, Supplier<BigDecimal> loader) {
+        return getPrice(new Key(basePrice, discounts), loader);
+    }
+
+    public BigDecimal getPrice(Key key, Supplier<BigDecimal> loader) {
+        long current = generation.get();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.generation() == current) {
+            hits.increment();
+            return cached.price();
+        }
+
+        misses.increment();
+        BigDecimal price = loader.get();
+        entries.put(key, new Entry(key, price, current));
+
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+        return price;
+    }
+
+    // Bulk invalidation when a promotion changes, O(1) regardless of the number of entries
+    public void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    // One thread trims at a time. Stale entries go first, then arbitrary ones down to three quarters
+    // of the limit so that a full cache does not evict on every single miss
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long current = generation.get();
+            entries.values().removeIf(entry -> {
+                if (entry.generation() != current) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            });
+
+            int target = maxEntries - maxEntries / 4;
+            for (Iterator<Key> it = entries.keySet().iterator(); it.hasNext() && entries.size() > target; ) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.shop;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record PricedCart(
+        List<Line> lines,
+        BigDecimal total
+) {
+    public record Line(String itemId, BigDecimal unitPrice, int quantity) {
+    }
+
+    public PricedCart {
+        lines = List.copyOf(lines);
+    }
+}
@@ -25,8 +25,20 @@ public class ShoppingCart {
     }
 
     public BigDecimal getTotalPrice() {
-        BigDecimal total = items.stream()
-                .map(Item::getPrice)
+        return freeze().total();
+    }
+
+    // Prices every item once and returns an immutable copy that later changes to the cart do not affect.
+    // NOTE: the total counts each line's unit price once whatever its quantity, the same rule
+    // getTotalPrice() has always used. Lines record the quantity, so a frozen order with a quantity
+    // above one shows a total lower than unitPrice x quantity; changing that is a pricing change of its own
+    public PricedCart freeze() {
+        List<PricedCart.Line> lines = items.stream()
+                .map(item -> new PricedCart.Line(item.getId(), item.getPrice(), item.getQuantity()))
+                .toList();
+
+        BigDecimal total = lines.stream()
+                .map(PricedCart.Line::unitPrice)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         // Apply any discounts added to the cart (not from items)
@@ -34,7 +46,7 @@ public class ShoppingCart {
             total = discount.apply(total);
         }
 
-        return total;
+        return new PricedCart(lines, total);
     }
 
     public void addDiscount(Discount discount) {
@@ -0,0 +1,202 @@
+package com.example.snapshot;
+
+import com.example.Booking;
+import com.example.BookingIndex;
+import com.example.RecurrenceRule;
+import com.example.RecurringBooking;
+import com.example.Room;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Binärt format för alla rum med bokningar och serier:
+// magiskt tal, version, antal rum, rummen i tur och ordning och sist en CRC32C över allt före den.
+// Tider lagras som sekunder och nanosekunder i UTC, datum som epokdagar
+public final class SnapshotFormat {
+    static final int MAGIC = 0x424B534E;
+    static final short VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long NO_UNTIL = Long.MIN_VALUE;
+    private static final int MAX_PRESIZE = 1 << 16;
+
+    private SnapshotFormat() {
+    }
+
+    public static void write(Collection<Room> rooms, OutputStream out) throws IOException {
+        CRC32C checksum = new CRC32C();
+        DataOutputStream data = new DataOutputStream(
+                new CheckedOutputStream(new BufferedOutputStream(out, BUFFER_SIZE), checksum));
+
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(rooms.size());
+
+        for (Room room : rooms) {
+            // Ögonblicksbilden är oföränderlig, så varje rum skrivs konsekvent även om det bokas samtidigt
+            BookingIndex index = room.snapshot();
+            data.writeUTF(room.getId());
+            data.writeUTF(room.getName());
+
+            List<Booking> bookings = index.getBookings();
+            data.writeInt(bookings.size());
+            for (Booking booking : bookings) {
+                data.writeUTF(booking.getId());
+                writeTime(data, booking.getStartTime());
+                writeTime(data, booking.getEndTime());
+            }
+
+            Collection<RecurringBooking> series = index.getRecurringBookings();
+            data.writeInt(series.size());
+            for (RecurringBooking s : series) {
+                writeSeries(data, s);
+            }
+        }
+
+        // Kontrollsumman skrivs förbi CheckedOutputStream så att den inte räknar med sig själv
+        data.flush();
+        DataOutputStream trailer = new DataOutputStream(out);
+        trailer.writeInt((int) checksum.getValue());
+        trailer.flush();
+    }
+
+    // Rummen byggs i ett svep med Room.restore och lämnas bara ut om kontrollsumman stämmer
+    public static List<Room> read(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        CRC32C checksum = new CRC32C();
+        DataInputStream data = new DataInputStream(new CheckedInputStream(buffered, checksum));
+
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Ogiltig ögonblicksbild: fel magiskt tal");
+        }
+        short version = data.readShort();
+        if (version != VERSION) {
+            throw new IOException("Ogiltig ögonblicksbild: okänd version " + version);
+        }
+
+        int roomCount = readCount(data);
+        List<Room> rooms = new ArrayList<>(initialCapacity(roomCount));
+        for (int r = 0; r < roomCount; r++) {
+            String roomId = data.readUTF();
+            String name = data.readUTF();
+
+            int bookingCount = readCount(data);
+            List<Booking> bookings = new ArrayList<>(initialCapacity(bookingCount));
+            for (int b = 0; b < bookingCount; b++) {
+                bookings.add(new Booking(data.readUTF(), roomId, readTime(data), readTime(data)));
+            }
+
+            int seriesCount = readCount(data);
+            List<RecurringBooking> series = new ArrayList<>(initialCapacity(seriesCount));
+            for (int s = 0; s < seriesCount; s++) {
+                series.add(readSeries(data, roomId));
+            }
+
+            rooms.add(Room.restore(roomId, name, bookings, series));
+        }
+
+        int expected = (int) checksum.getValue();
+        if (new DataInputStream(buffered).readInt() != expected) {
+            throw new IOException("Ogiltig ögonblicksbild: fel kontrollsumma");
+        }
+        return rooms;
+    }
+
+    private static void writeSeries(DataOutputStream data, RecurringBooking series) throws IOException {
+        RecurrenceRule rule = series.getRule();
+        data.writeUTF(series.getId());
+        writeTime(data, series.getFirstStart());
+        data.writeLong(series.getDuration().getSeconds());
+        data.writeInt(series.getDuration().getNano());
+        data.writeByte(rule.frequency().ordinal());
+        data.writeInt(rule.interval());
+        data.writeLong(rule.until() == null ? NO_UNTIL : rule.until().toEpochDay());
+        data.writeInt(rule.count());
+
+        data.writeInt(series.getExceptions().size());
+        for (LocalDate exception : series.getExceptions()) {
+            data.writeLong(exception.toEpochDay());
+        }
+    }
+
+    private static RecurringBooking readSeries(DataInputStream data, String roomId) throws IOException {
+        String id = data.readUTF();
+        LocalDateTime firstStart = readTime(data);
+        Duration duration = Duration.ofSeconds(data.readLong(), data.readInt());
+
+        int frequency = data.readUnsignedByte();
+        if (frequency >= RecurrenceRule.Frequency.values().length) {
+            throw new IOException("Ogiltig ögonblicksbild: okänd frekvens " + frequency);
+        }
+        int interval = data.readInt();
+        long until = data.readLong();
+        int count = data.readInt();
+        RecurrenceRule rule;
+        try {
+            rule = new RecurrenceRule(RecurrenceRule.Frequency.values()[frequency], interval,
+                    until == NO_UNTIL ? null : toDate(until), count);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Ogiltig ögonblicksbild: " + e.getMessage(), e);
+        }
+
+        int exceptionCount = readCount(data);
+        Set<LocalDate> exceptions = new HashSet<>();
+        for (int i = 0; i < exceptionCount; i++) {
+            exceptions.add(toDate(data.readLong()));
+        }
+
+        return RecurringBooking.restore(id, roomId, firstStart, duration, rule, exceptions);
+    }
+
+    private static void writeTime(DataOutputStream data, LocalDateTime time) throws IOException {
+        data.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        data.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream data) throws IOException {
+        long seconds = data.readLong();
+        int nanos = data.readInt();
+        try {
+            return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        } catch (RuntimeException e) {
+            throw new IOException("Ogiltig ögonblicksbild: ogiltig tid", e);
+        }
+    }
+
+    private static LocalDate toDate(long epochDay) throws IOException {
+        try {
+            return LocalDate.ofEpochDay(epochDay);
+        } catch (RuntimeException e) {
+            throw new IOException("Ogiltig ögonblicksbild: ogiltigt datum", e);
+        }
+    }
+
+    private static int readCount(DataInputStream data) throws IOException {
+        int count = data.readInt();
+        if (count < 0) {
+            throw new IOException("Ogiltig ögonblicksbild: negativt antal " + count);
+        }
+        return count;
+    }
+
+    // En skadad fil ska ge ett begripligt fel och inte en gigantisk allokering i förväg
+    private static int initialCapacity(int count) {
+        return Math.min(count, MAX_PRESIZE);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.snapshot;
+
+import com.example.BookingSystem;
+import com.example.Room;
+import com.example.RoomRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Startar en instans från en ögonblicksbild istället för att läsa in rum och bokningar rad för rad
+public final class SnapshotLoader {
+    // Fönstren sprids över två veckor så att varje runda inte bara träffar samma bokningar
+    private static final int WARM_UP_WINDOWS = 48 * 14;
+
+    private SnapshotLoader() {
+    }
+
+    // Returnerar antal inlästa rum, 0 om det inte finns någon ögonblicksbild ännu
+    public static int load(Path path, RoomRepository roomRepository) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        List<Room> rooms;
+        try (InputStream in = Files.newInputStream(path)) {
+            rooms = SnapshotFormat.read(in);
+        }
+
+        roomRepository.saveAll(rooms);
+        return rooms.size();
+    }
+
+    // Kör tillgänglighetsfrågor innan instansen tar trafik så att JIT hinner kompilera den heta vägen.
+    // Bör köras innan en AvailabilityCache kopplas in, annars besvaras de flesta frågorna av cachen
+    public static void warmUp(BookingSystem bookingSystem, LocalDateTime from, int rounds) {
+        if (from == null || rounds < 0) {
+            throw new IllegalArgumentException("Uppvärmning kräver starttid och ett icke-negativt antal rundor");
+        }
+
+        for (int i = 0; i < rounds; i++) {
+            LocalDateTime start = from.plusMinutes(30L * (i % WARM_UP_WINDOWS));
+            bookingSystem.getAvailableRooms(start, start.plusHours(1));
+            bookingSystem.getAvailableRooms(start, start.plusHours(1), null, 20);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.snapshot;
+
+import com.example.RoomRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// Skriver ögonblicksbilder av alla rum, antingen direkt eller med jämna mellanrum i bakgrunden
+public class SnapshotWriter implements AutoCloseable {
+    private final RoomRepository roomRepository;
+    private final Path path;
+    private ScheduledExecutorService scheduler;
+    private volatile Exception lastFailure;
+
+    public SnapshotWriter(RoomRepository roomRepository, Path path) {
+        this.roomRepository = roomRepository;
+        this.path = path;
+    }
+
+    // Skriver till en temporär fil bredvid och byter in den atomärt, så att en omstart
+    // aldrig läser en halvskriven fil
+    public synchronized void writeNow() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING);
+             OutputStream out = Channels.newOutputStream(channel)) {
+            SnapshotFormat.write(roomRepository.findAll(), out);
+            channel.force(true);
+        }
+
+        Files.move(temp, path, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    public synchronized void start(Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Intervallet måste vara positivt");
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("Skrivaren är redan startad");
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                task -> Thread.ofPlatform().daemon().name("snapshot-writer").unstarted(task));
+        scheduler.scheduleWithFixedDelay(this::writeQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    // Ett misslyckat försök får inte stoppa schemat, nästa försök skriver en hel ny fil
+    private void writeQuietly() {
+        try {
+            writeNow();
+            lastFailure = null;
+        } catch (IOException | RuntimeException e) {
+            lastFailure = e;
+        }
+    }
+
+    public Optional<Exception> getLastFailure() {
+        return Optional.ofNullable(lastFailure);
+    }
+
+    // Stoppar schemat och skriver en sista ögonblicksbild, t.ex. inför en ny driftsättning
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        writeNow();
+    }
+}
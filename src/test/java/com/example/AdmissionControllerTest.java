@@ -0,0 +1,180 @@
+package com.example;
+
+import com.example.admission.AdaptiveLimit;
+import com.example.admission.AdmissionControlledBookingSystem;
+import com.example.admission.AdmissionController;
+import com.example.admission.BookingOutcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("AdmissionController Tests")
+class AdmissionControllerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 19, 13, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 19, 14, 0);
+    private static final String POPULAR_ROOM = "popular-room";
+
+    private static AdaptiveLimit limit(int initial, int max) {
+        return new AdaptiveLimit(initial, 1, max, Duration.ofMillis(50), 0.5);
+    }
+
+    @DisplayName("grows the limit on fast calls and backs off on slow ones")
+    @Test
+    void aimdLimit() {
+        AdaptiveLimit limit = limit(4, 100);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(Duration.ofMillis(1).toNanos(), limit.getLimit());
+        }
+        int grown = limit.getLimit();
+        limit.onSample(Duration.ofMillis(200).toNanos(), 1);
+
+        assertThat(grown).isGreaterThan(4);
+        assertThat(limit.getLimit()).isEqualTo(grown / 2);
+    }
+
+    @DisplayName("does not grow the limit while it is far from saturated")
+    @Test
+    void lightLoadKeepsLimit() {
+        AdaptiveLimit limit = limit(8, 100);
+
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(Duration.ofMillis(1).toNanos(), 3);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(8);
+    }
+
+    @DisplayName("shrinks the global limit to the minimum when every call is slow")
+    @Test
+    void slowCallsShrinkLimit() {
+        AtomicLong clock = new AtomicLong();
+        AdmissionController controller = new AdmissionController(limit(16, 16), 16,
+                () -> clock.addAndGet(Duration.ofMillis(100).toNanos()));
+
+        for (int i = 0; i < 10; i++) {
+            controller.execute("room", () -> true, false);
+        }
+
+        assertThat(controller.stats().limit()).isEqualTo(1);
+    }
+
+    @DisplayName("rejects a busy room immediately while other rooms are still admitted")
+    @Test
+    void busyRoomIsRejected() throws InterruptedException {
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        Room popular = new Room(POPULAR_ROOM, "Populärt rum");
+        Room quiet = new Room("quiet-room", "Lugnt rum");
+        when(roomRepository.findById("quiet-room")).thenReturn(Optional.of(quiet));
+        BookingSystem bookingSystem = new BookingSystem(() -> NOW, roomRepository, mock(NotificationService.class));
+        AdmissionController controller = new AdmissionController(limit(10, 10), 1);
+        AdmissionControlledBookingSystem admitted = new AdmissionControlledBookingSystem(bookingSystem, controller);
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofPlatform().start(() -> controller.execute(POPULAR_ROOM, () -> {
+            entered.countDown();
+            awaitQuietly(release);
+            return true;
+        }, false));
+        entered.await();
+
+        assertThat(admitted.bookRoom(POPULAR_ROOM, START, END)).isEqualTo(BookingOutcome.OVERLOADED);
+        assertThat(admitted.bookRoom("quiet-room", START, END)).isEqualTo(BookingOutcome.BOOKED);
+        assertThat(popular.isAvailable(START, END)).isTrue();
+
+        release.countDown();
+        holder.join();
+        assertThat(controller.stats().inFlight()).isZero();
+    }
+
+    @DisplayName("keeps concurrency within limits under a synthetic peak workload")
+    @Test
+    void syntheticPeakWorkload() throws InterruptedException {
+        int maxPerRoom = 2;
+        int maxGlobal = 8;
+        AdmissionController controller = new AdmissionController(limit(maxGlobal, maxGlobal), maxPerRoom);
+
+        Map<String, AtomicInteger> activePerRoom = new ConcurrentHashMap<>();
+        Map<String, Integer> peakPerRoom = new ConcurrentHashMap<>();
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        LongAdder popularAdmitted = new LongAdder();
+        LongAdder popularRequests = new LongAdder();
+        LongAdder quietAdmitted = new LongAdder();
+        LongAdder quietRequests = new LongAdder();
+
+        // 80 % av trafiken går till samma rum, resten sprids över 50 lugna rum
+        try (ExecutorService clients = Executors.newFixedThreadPool(32)) {
+            for (int c = 0; c < 32; c++) {
+                clients.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        boolean popular = random.nextInt(100) < 80;
+                        String roomId = popular ? POPULAR_ROOM : "quiet-" + random.nextInt(50);
+
+                        boolean ran = controller.execute(roomId, () -> {
+                            int roomActive = activePerRoom.computeIfAbsent(roomId, id -> new AtomicInteger()).incrementAndGet();
+                            peakPerRoom.merge(roomId, roomActive, Math::max);
+                            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                            sleepQuietly(1);
+                            active.decrementAndGet();
+                            activePerRoom.get(roomId).decrementAndGet();
+                            return true;
+                        }, false);
+
+                        (popular ? popularRequests : quietRequests).increment();
+                        if (ran) {
+                            (popular ? popularAdmitted : quietAdmitted).increment();
+                        }
+                    }
+                });
+            }
+        }
+
+        AdmissionController.Stats stats = controller.stats();
+        assertThat(peakPerRoom.values()).allSatisfy(roomPeak -> assertThat(roomPeak).isLessThanOrEqualTo(maxPerRoom));
+        assertThat(peak.get()).isLessThanOrEqualTo(maxGlobal);
+        assertThat(stats.rejected()).isPositive();
+        assertThat(stats.admitted() + stats.rejected()).isEqualTo(3200);
+        assertThat(stats.inFlight()).isZero();
+
+        // De lugna rummen ska inte dras ner av det populära rummets kö
+        double popularRatio = (double) popularAdmitted.sum() / popularRequests.sum();
+        double quietRatio = (double) quietAdmitted.sum() / quietRequests.sum();
+        assertThat(quietRatio).isGreaterThan(popularRatio);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AvailabilityCache Tests")
+class AvailabilityCacheTest {
+    @Mock private TimeProvider timeProvider;
+    @Mock private NotificationService notificationService;
+    @Mock private RoomRepository roomRepository;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 19, 13, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 19, 14, 0);
+    private static final String ROOM_ID = "default-room-id";
+
+    private AvailabilityCache cache;
+    private BookingSystem bookingSystem;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AvailabilityCache(2);
+        bookingSystem = new BookingSystem(timeProvider, roomRepository, notificationService);
+        bookingSystem.setAvailabilityCache(cache);
+        room = new Room(ROOM_ID, "Rum");
+    }
+
+    @DisplayName("answers a repeated window from the cache")
+    @Test
+    void repeatedWindowIsHit() {
+        when(roomRepository.findAll()).thenReturn(List.of(room));
+
+        bookingSystem.getAvailableRooms(START, END);
+        List<Room> result = bookingSystem.getAvailableRooms(START, END);
+
+        assertThat(result).containsExactly(room);
+        verify(roomRepository, times(1)).findAll();
+        assertThat(cache.stats()).isEqualTo(new AvailabilityCache.Stats(1, 1, 0, 1));
+    }
+
+    @DisplayName("invalidates only windows overlapping a new booking")
+    @Test
+    void bookingInvalidatesOverlappingWindows() {
+        when(roomRepository.findAll()).thenReturn(List.of(room));
+        when(roomRepository.findById(ROOM_ID)).thenReturn(Optional.of(room));
+        when(timeProvider.getCurrentTime()).thenReturn(NOW);
+
+        bookingSystem.getAvailableRooms(START, END);
+        bookingSystem.getAvailableRooms(START.plusDays(1), END.plusDays(1));
+
+        bookingSystem.bookRoom(ROOM_ID, START.plusMinutes(30), END);
+
+        assertThat(cache.stats().invalidations()).isEqualTo(1);
+        assertThat(bookingSystem.getAvailableRooms(START, END)).isEmpty();
+        assertThat(bookingSystem.getAvailableRooms(START.plusDays(1), END.plusDays(1))).containsExactly(room);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+    }
+
+    @DisplayName("invalidates the cache even when another listener throws")
+    @Test
+    void failingListenerDoesNotSkipInvalidation() throws NotificationException {
+        BookingListener failing = mock(BookingListener.class);
+        BookingListener other = mock(BookingListener.class);
+        doThrow(new IllegalStateException("Analysen är nere")).when(failing).bookingCreated(any());
+        bookingSystem.addBookingListener(failing);
+        bookingSystem.addBookingListener(other);
+        bookingSystem.setAvailabilityCache(cache);
+        when(roomRepository.findAll()).thenReturn(List.of(room));
+        when(roomRepository.findById(ROOM_ID)).thenReturn(Optional.of(room));
+        when(timeProvider.getCurrentTime()).thenReturn(NOW);
+        bookingSystem.getAvailableRooms(START, END);
+
+        assertThat(bookingSystem.bookRoom(ROOM_ID, START, END)).isTrue();
+
+        assertThat(bookingSystem.getAvailableRooms(START, END)).isEmpty();
+        verify(other).bookingCreated(any(Booking.class));
+        verify(notificationService).sendBookingConfirmation(any(Booking.class));
+    }
+
+    @DisplayName("invalidates the window again when the booking is cancelled")
+    @Test
+    void cancellationInvalidatesWindow() {
+        Booking booking = new Booking("b1", ROOM_ID, START, END);
+        room.addBooking(booking);
+        when(roomRepository.findAll()).thenReturn(List.of(room));
+        when(timeProvider.getCurrentTime()).thenReturn(NOW);
+
+        assertThat(bookingSystem.getAvailableRooms(START, END)).isEmpty();
+
+        bookingSystem.cancelBooking("b1");
+
+        assertThat(bookingSystem.getAvailableRooms(START, END)).containsExactly(room);
+    }
+
+    @DisplayName("evicts the least recently used window when full")
+    @Test
+    void evictsLeastRecentlyUsed() {
+        cache.get(START, END, List::of);
+        cache.get(START.plusDays(1), END.plusDays(1), List::of);
+        cache.get(START, END, List::of);
+        cache.get(START.plusDays(2), END.plusDays(2), List::of);
+
+        cache.get(START, END, List::of);
+        cache.get(START.plusDays(1), END.plusDays(1), List::of);
+
+        assertThat(cache.stats()).isEqualTo(new AvailabilityCache.Stats(2, 4, 0, 2));
+    }
+}
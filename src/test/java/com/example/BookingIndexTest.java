@@ -0,0 +1,85 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("BookingIndex Tests")
+class BookingIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 19, 13, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 19, 14, 0);
+    private static final String ROOM_ID = "default-room-id";
+
+    @DisplayName("keeps an earlier snapshot unchanged after a write")
+    @Test
+    void snapshotIsImmutable() {
+        Room room = new Room(ROOM_ID, "Rum");
+        BookingIndex before = room.snapshot();
+
+        room.addBooking(new Booking("b1", ROOM_ID, START, END));
+
+        assertThat(before.isAvailable(START, END)).isTrue();
+        assertThat(room.snapshot().isAvailable(START, END)).isFalse();
+        assertThat(room.snapshot()).isNotSameAs(before);
+    }
+
+    @DisplayName("finds a long booking that started well before the window")
+    @Test
+    void longBookingBlocksLaterWindow() {
+        BookingIndex index = BookingIndex.EMPTY
+                .withBooking(new Booking("long", ROOM_ID, START.minusDays(2), END.plusDays(2)))
+                .withBooking(new Booking("b1", ROOM_ID, START.minusDays(1), END.minusDays(1)))
+                .withBooking(new Booking("b2", ROOM_ID, START.plusHours(2), END.plusHours(2)));
+
+        assertThat(index.isAvailable(START, END)).isFalse();
+        assertThat(index.withoutBooking("long").isAvailable(START, END)).isTrue();
+    }
+
+    @DisplayName("keeps bookings sorted by start time")
+    @Test
+    void bookingsAreSorted() {
+        BookingIndex index = BookingIndex.EMPTY
+                .withBooking(new Booking("b2", ROOM_ID, START.plusHours(2), END.plusHours(2)))
+                .withBooking(new Booking("b1", ROOM_ID, START, END))
+                .withBooking(new Booking("b3", ROOM_ID, START.plusHours(4), END.plusHours(4)));
+
+        assertThat(index.getBookings()).extracting(Booking::getId).containsExactly("b1", "b2", "b3");
+    }
+
+    @DisplayName("lets only one of many concurrent bookings of the same slot succeed")
+    @Test
+    void concurrentBookingsOfSameSlot() throws Exception {
+        Room room = new Room(ROOM_ID, "Rum");
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        when(roomRepository.findById(ROOM_ID)).thenReturn(Optional.of(room));
+        BookingSystem bookingSystem = new BookingSystem(() -> NOW, roomRepository, mock(NotificationService.class));
+
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            attempts.add(() -> bookingSystem.bookRoom(ROOM_ID, START, END));
+        }
+
+        int succeeded = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<Boolean> attempt : executor.invokeAll(attempts)) {
+                succeeded += attempt.get() ? 1 : 0;
+            }
+        }
+
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(room.snapshot().getBookings()).hasSize(1);
+    }
+}
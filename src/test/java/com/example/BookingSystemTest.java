@@ -263,4 +263,65 @@ class BookingSystemTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Sluttid måste vara efter starttid");
     }
+
+    private Room roomWithId(String id, boolean available) {
+        Room room = mock(Room.class);
+        lenient().when(room.getId()).thenReturn(id);
+        lenient().when(room.isAvailable(START, END)).thenReturn(available);
+        return room;
+    }
+
+    @DisplayName("stops reading rooms once the page is full")
+    @Test
+    void availableRoomsPageStopsWhenFull() {
+        Room room1 = roomWithId("room-1", true);
+        Room room2 = roomWithId("room-2", false);
+        Room room3 = roomWithId("room-3", true);
+        Room room4 = roomWithId("room-4", true);
+        Room room5 = roomWithId("room-5", true);
+
+        when(roomRepository.streamAll()).thenReturn(Stream.of(room1, room2, room3, room4, room5));
+
+        RoomPage page = bookingSystem.getAvailableRooms(START, END, null, 2);
+
+        assertThat(page.rooms()).isEqualTo(List.of(room1, room3));
+        assertThat(page.nextCursor()).isEqualTo("room-3");
+        verify(room5, never()).isAvailable(START, END);
+    }
+
+    @DisplayName("continues after the cursor and ends without a next cursor")
+    @Test
+    void availableRoomsPageFromCursor() {
+        Room room4 = roomWithId("room-4", true);
+
+        when(roomRepository.streamFrom("room-3")).thenReturn(Stream.of(room4));
+
+        RoomPage page = bookingSystem.getAvailableRooms(START, END, "room-3", 2);
+
+        assertThat(page.rooms()).isEqualTo(List.of(room4));
+        assertThat(page.hasNext()).isFalse();
+        verify(roomRepository, never()).streamAll();
+    }
+
+    @DisplayName("a page that ends on the last available room has no next cursor")
+    @Test
+    void availableRoomsPageEndingOnLastRoom() {
+        Room room1 = roomWithId("room-1", true);
+        Room room2 = roomWithId("room-2", true);
+
+        when(roomRepository.streamAll()).thenReturn(Stream.of(room1, room2));
+
+        RoomPage page = bookingSystem.getAvailableRooms(START, END, null, 2);
+
+        assertThat(page.rooms()).isEqualTo(List.of(room1, room2));
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @DisplayName("throws exception if page size is less than 1")
+    @Test
+    void invalidPageSize() {
+        assertThatThrownBy(() -> bookingSystem.getAvailableRooms(START, END, null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Sidstorleken måste vara minst 1");
+    }
 }
@@ -0,0 +1,121 @@
+package com.example;
+
+import com.example.events.ChangeEvent;
+import com.example.events.ChangeFeed;
+import com.example.events.ChangeFeedConsumer;
+import com.example.payment.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ChangeFeed Tests")
+class ChangeFeedTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 19, 13, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 19, 14, 0);
+    private static final String ROOM_ID = "default-room-id";
+    private static final String EMAIL = "customer@email.com";
+    private static final BigDecimal AMOUNT = BigDecimal.valueOf(200.0);
+
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ChangeFeed(8);
+    }
+
+    private static ChangeEvent payment(int i) {
+        return new ChangeEvent.PaymentSucceeded(EMAIL, BigDecimal.valueOf(i));
+    }
+
+    @DisplayName("publishes booking events from BookingSystem")
+    @Test
+    void bookingEventsArePublished() {
+        Room room = new Room(ROOM_ID, "Rum");
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        when(roomRepository.findById(ROOM_ID)).thenReturn(Optional.of(room));
+        when(roomRepository.findAll()).thenReturn(List.of(room));
+        BookingSystem bookingSystem = new BookingSystem(() -> NOW, roomRepository, mock(NotificationService.class));
+        bookingSystem.addBookingListener(feed);
+        ChangeFeedConsumer consumer = feed.subscribe("calendar-sync");
+
+        bookingSystem.bookRoom(ROOM_ID, START, END);
+        Booking booking = room.snapshot().getBookings().getFirst();
+        bookingSystem.cancelBooking(booking.getId());
+
+        assertThat(consumer.poll(10)).containsExactly(
+                new ChangeEvent.BookingCreated(booking),
+                new ChangeEvent.BookingCancelled(booking));
+    }
+
+    @DisplayName("publishes payment events from PaymentProcessor")
+    @Test
+    void paymentEventsArePublished() throws Exception {
+        PaymentConfig paymentConfig = mock(PaymentConfig.class);
+        PaymentApi paymentApi = mock(PaymentApi.class);
+        when(paymentConfig.getApiKey()).thenReturn("key");
+        when(paymentApi.charge("key", AMOUNT)).thenReturn(new PaymentApiResponse(true), new PaymentApiResponse(false));
+        PaymentProcessor paymentProcessor = new PaymentProcessor(paymentConfig, mock(PaymentRepository.class),
+                paymentApi, mock(EmailService.class));
+        paymentProcessor.addPaymentListener(feed);
+        ChangeFeedConsumer consumer = feed.subscribe("billing");
+
+        paymentProcessor.processPayment(EMAIL, AMOUNT);
+        assertThatThrownBy(() -> paymentProcessor.processPayment(EMAIL, AMOUNT)).isInstanceOf(PaymentException.class);
+
+        assertThat(consumer.poll(10)).containsExactly(
+                new ChangeEvent.PaymentSucceeded(EMAIL, AMOUNT),
+                new ChangeEvent.PaymentFailed(EMAIL, AMOUNT, "Payment declined"));
+    }
+
+    @DisplayName("lets consumers read at their own pace and in batches")
+    @Test
+    void independentCursors() {
+        ChangeFeedConsumer fast = feed.subscribe("search-index");
+        ChangeFeedConsumer slow = feed.subscribe("billing");
+
+        for (int i = 0; i < 5; i++) {
+            feed.publish(payment(i));
+        }
+
+        assertThat(fast.poll(3)).containsExactly(payment(0), payment(1), payment(2));
+        assertThat(fast.poll(3)).containsExactly(payment(3), payment(4));
+        assertThat(fast.poll(3)).isEmpty();
+        assertThat(slow.lag()).isEqualTo(5);
+        assertThat(slow.poll(10)).hasSize(5);
+    }
+
+    @DisplayName("skips a slow consumer past overwritten events and reports them as missed")
+    @Test
+    void slowConsumerIsLapped() {
+        ChangeFeedConsumer slow = feed.subscribe("slow");
+
+        for (int i = 0; i < 20; i++) {
+            feed.publish(payment(i));
+        }
+
+        List<ChangeEvent> batch = slow.poll(100);
+
+        assertThat(batch).hasSize(8).startsWith(payment(12)).endsWith(payment(19));
+        assertThat(slow.missedEvents()).isEqualTo(12);
+        assertThat(slow.lag()).isZero();
+    }
+
+    @DisplayName("throws exception if capacity is not a power of two")
+    @Test
+    void invalidCapacity() {
+        assertThatThrownBy(() -> new ChangeFeed(10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Kapaciteten måste vara en tvåpotens");
+    }
+}
@@ -0,0 +1,185 @@
+package com.example;
+
+import com.example.checkout.CheckoutPipeline;
+import com.example.checkout.CheckoutRequest;
+import com.example.checkout.CheckoutResult;
+import com.example.checkout.Order;
+import com.example.checkout.OrderRepository;
+import com.example.payment.*;
+import com.example.shop.CartPercentageDiscount;
+import com.example.shop.Item;
+import com.example.shop.ItemPercentageDiscount;
+import com.example.shop.PricedCart;
+import com.example.shop.ShoppingCart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CheckoutPipeline Tests")
+class CheckoutPipelineTest {
+    @Mock private PaymentConfig paymentConfig;
+    @Mock private PaymentRepository paymentRepository;
+    @Mock private PaymentApi paymentApi;
+    @Mock private EmailService emailService;
+    @Mock private OrderRepository orderRepository;
+
+    private static final String API_KEY = "test-api-key-123";
+    private static final String EMAIL = "customer@email.com";
+
+    private CheckoutPipeline pipeline;
+    private ShoppingCart cart;
+
+    @BeforeEach
+    void setUp() {
+        PaymentProcessor paymentProcessor = new PaymentProcessor(paymentConfig, paymentRepository, paymentApi, emailService);
+        AtomicInteger orderIds = new AtomicInteger();
+        AtomicLong clock = new AtomicLong();
+        pipeline = new CheckoutPipeline(paymentProcessor, orderRepository,
+                () -> "order-" + orderIds.incrementAndGet(), () -> clock.addAndGet(1_000));
+
+        Item item = new Item("item1", BigDecimal.valueOf(100.0), 1);
+        item.addDiscount(new ItemPercentageDiscount(BigDecimal.valueOf(0.10)));
+        cart = new ShoppingCart();
+        cart.addItem(item);
+        cart.addItem(new Item("item2", BigDecimal.valueOf(100.0), 2));
+        cart.addDiscount(new CartPercentageDiscount(BigDecimal.valueOf(0.10)));
+    }
+
+    @DisplayName("charges the frozen total and saves the order with the payment status")
+    @Test
+    void successfulCheckout() throws ExternalServiceException {
+        when(paymentConfig.getApiKey()).thenReturn(API_KEY);
+        when(paymentApi.charge(eq(API_KEY), any())).thenReturn(new PaymentApiResponse(true));
+
+        CheckoutResult result = pipeline.checkout(EMAIL, cart);
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.order().cart().total()).isEqualByComparingTo(cart.getTotalPrice());
+        // (90 + 100) minus 10 % on the cart, quantity does not count towards the total
+        assertThat(result.order().cart().total()).isEqualByComparingTo(BigDecimal.valueOf(171.0));
+        assertThat(result.order().cart().lines()).extracting(PricedCart.Line::itemId).containsExactly("item1", "item2");
+        verify(paymentApi).charge(API_KEY, result.order().cart().total());
+        verify(paymentRepository).save(result.order().cart().total(), PaymentStatus.SUCCESS.name());
+        verify(orderRepository).save(result.order());
+        assertThat(result.timings().payment()).isPositive();
+    }
+
+    @DisplayName("keeps the frozen snapshot unchanged when the cart changes afterwards")
+    @Test
+    void snapshotIsImmutable() throws ExternalServiceException {
+        when(paymentConfig.getApiKey()).thenReturn(API_KEY);
+        when(paymentApi.charge(eq(API_KEY), any())).thenReturn(new PaymentApiResponse(true));
+
+        CheckoutResult result = pipeline.checkout(EMAIL, cart);
+        BigDecimal charged = result.order().cart().total();
+        cart.addItem(new Item("item3", BigDecimal.valueOf(50.0), 1));
+
+        assertThat(result.order().cart().total()).isEqualTo(charged);
+        assertThat(result.order().cart().lines()).hasSize(2);
+    }
+
+    @DisplayName("saves a failed order when the charge is declined")
+    @Test
+    void declinedCheckout() throws ExternalServiceException {
+        when(paymentConfig.getApiKey()).thenReturn(API_KEY);
+        when(paymentApi.charge(eq(API_KEY), any())).thenReturn(new PaymentApiResponse(false));
+
+        CheckoutResult result = pipeline.checkout(EMAIL, cart);
+
+        assertThat(result.succeeded()).isFalse();
+        ArgumentCaptor<Order> order = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, times(2)).save(order.capture());
+        assertThat(order.getAllValues()).extracting(Order::status)
+                .containsExactly(PaymentStatus.PENDING, PaymentStatus.FAILED);
+        verify(paymentRepository).save(result.order().cart().total(), PaymentStatus.FAILED.name());
+    }
+
+    @DisplayName("saves the order as pending before the card is charged")
+    @Test
+    void orderIsPendingBeforeCharge() throws ExternalServiceException {
+        when(paymentConfig.getApiKey()).thenReturn(API_KEY);
+        when(paymentApi.charge(eq(API_KEY), any())).thenReturn(new PaymentApiResponse(true));
+
+        CheckoutResult result = pipeline.checkout(EMAIL, cart);
+
+        InOrder inOrder = inOrder(orderRepository, paymentApi);
+        inOrder.verify(orderRepository).save(new Order(result.order().id(), EMAIL, result.order().cart(), PaymentStatus.PENDING));
+        inOrder.verify(paymentApi).charge(API_KEY, result.order().cart().total());
+        inOrder.verify(orderRepository).save(result.order());
+    }
+
+    @DisplayName("does not charge the card when the pending order cannot be saved")
+    @Test
+    void pendingSaveFails() {
+        doThrow(new IllegalStateException("Database unavailable")).when(orderRepository).save(any(Order.class));
+
+        assertThatThrownBy(() -> pipeline.checkout(EMAIL, cart))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Database unavailable");
+        verifyNoInteractions(paymentApi, paymentRepository);
+    }
+
+    @DisplayName("leaves the charged order pending when the final save fails")
+    @Test
+    void finalSaveFails() throws ExternalServiceException {
+        when(paymentConfig.getApiKey()).thenReturn(API_KEY);
+        when(paymentApi.charge(eq(API_KEY), any())).thenReturn(new PaymentApiResponse(true));
+        doNothing().doThrow(new IllegalStateException("Database unavailable"))
+                .when(orderRepository).save(any(Order.class));
+
+        assertThatThrownBy(() -> pipeline.checkout(EMAIL, cart))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Database unavailable");
+
+        ArgumentCaptor<Order> order = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, times(2)).save(order.capture());
+        assertThat(order.getAllValues().getFirst().status()).isEqualTo(PaymentStatus.PENDING);
+        assertThat(order.getAllValues().getLast().id()).isEqualTo(order.getAllValues().getFirst().id());
+        verify(paymentRepository).save(cart.getTotalPrice(), PaymentStatus.SUCCESS.name());
+    }
+
+    @DisplayName("runs many checkouts concurrently")
+    @Test
+    void concurrentCheckouts() throws ExternalServiceException {
+        when(paymentConfig.getApiKey()).thenReturn(API_KEY);
+        when(paymentApi.charge(eq(API_KEY), any())).thenReturn(new PaymentApiResponse(true));
+
+        List<CheckoutRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ShoppingCart cart = new ShoppingCart();
+            cart.addItem(new Item("item" + i, BigDecimal.valueOf(10 + i), 1));
+            requests.add(new CheckoutRequest("customer" + i + "@email.com", cart));
+        }
+
+        List<CheckoutResult> results = pipeline.checkoutAll(requests);
+
+        assertThat(results).hasSize(200).allSatisfy(result -> assertThat(result.succeeded()).isTrue());
+        assertThat(results.get(42).order().email()).isEqualTo("customer42@email.com");
+        verify(orderRepository, times(400)).save(any(Order.class));
+    }
+
+    @DisplayName("throws exception for an empty cart")
+    @Test
+    void emptyCart() {
+        assertThatThrownBy(() -> pipeline.checkout(EMAIL, new ShoppingCart()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cannot check out an empty cart");
+        verifyNoInteractions(paymentApi, orderRepository);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example;
+
+import com.example.load.InMemoryRoomRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Group booking Tests")
+class GroupBookingTest {
+    @Mock private TimeProvider timeProvider;
+    @Mock private NotificationService notificationService;
+    @Mock private RoomRepository roomRepository;
+
+    @InjectMocks
+    private BookingSystem bookingSystem;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 19, 13, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 19, 14, 0);
+
+    private Room room(String id) {
+        Room room = new Room(id, "Rum " + id);
+        lenient().when(roomRepository.findById(id)).thenReturn(Optional.of(room));
+        return room;
+    }
+
+    @DisplayName("books every room, saves them in one batch and sends one notification")
+    @Test
+    void booksAllRooms() throws NotificationException {
+        when(timeProvider.getCurrentTime()).thenReturn(NOW);
+        Room a = room("a");
+        Room b = room("b");
+
+        boolean result = bookingSystem.bookRooms(List.of("b", "a"), START, END);
+
+        assertThat(result).isTrue();
+        assertThat(a.isAvailable(START, END)).isFalse();
+        assertThat(b.isAvailable(START, END)).isFalse();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Room>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(roomRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).containsExactly(a, b);
+        verify(roomRepository, never()).save(any());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Booking>> notified = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).sendGroupBookingConfirmation(notified.capture());
+        assertThat(notified.getValue()).extracting(Booking::getRoomId).containsExactly("a", "b");
+        verify(notificationService, never()).sendBookingConfirmation(any());
+    }
+
+    @DisplayName("books nothing when one of the rooms is taken")
+    @Test
+    void allOrNothing() throws NotificationException {
+        when(timeProvider.getCurrentTime()).thenReturn(NOW);
+        Room a = room("a");
+        Room b = room("b");
+        b.addBooking(new Booking("taken", "b", START.plusMinutes(30), END.plusMinutes(30)));
+
+        boolean result = bookingSystem.bookRooms(List.of("a", "b"), START, END);
+
+        assertThat(result).isFalse();
+        assertThat(a.isAvailable(START, END)).isTrue();
+        verify(roomRepository, never()).saveAll(anyCollection());
+        verify(notificationService, never()).sendGroupBookingConfirmation(any());
+    }
+
+    @DisplayName("rolls back rooms in memory when the batch save fails")
+    @Test
+    void rollsBackOnSaveFailure() {
+        when(timeProvider.getCurrentTime()).thenReturn(NOW);
+        Room a = room("a");
+        Room b = room("b");
+        doThrow(new IllegalStateException("Databasen är nere")).when(roomRepository).saveAll(anyCollection());
+
+        assertThatThrownBy(() -> bookingSystem.bookRooms(List.of("a", "b"), START, END))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(a.isAvailable(START, END)).isTrue();
+        assertThat(b.isAvailable(START, END)).isTrue();
+    }
+
+    @DisplayName("throws exception when one of the rooms does not exist")
+    @Test
+    void nonExistentRoom() {
+        when(timeProvider.getCurrentTime()).thenReturn(NOW);
+        Room a = room("a");
+        when(roomRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> bookingSystem.bookRooms(List.of("a", "missing"), START, END))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Rummet existerar inte");
+
+        assertThat(a.isAvailable(START, END)).isTrue();
+    }
+
+    @DisplayName("throws exception for an empty room list")
+    @Test
+    void emptyRoomList() {
+        assertThatThrownBy(() -> bookingSystem.bookRooms(List.of(), START, END))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Bokning kräver giltiga start- och sluttider samt rum-id");
+    }
+
+    @DisplayName("opposite room orders on many threads do not deadlock")
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void noDeadlockWithOppositeOrder() throws InterruptedException {
+        InMemoryRoomRepository repository = new InMemoryRoomRepository();
+        repository.save(new Room("a", "Rum a"));
+        repository.save(new Room("b", "Rum b"));
+        BookingSystem system = new BookingSystem(() -> NOW, repository, mock(NotificationService.class));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            List<String> order = t % 2 == 0 ? List.of("a", "b") : List.of("b", "a");
+            int offset = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 200; i++) {
+                    LocalDateTime start = START.plusHours((long) i * 8 + offset);
+                    system.bookRooms(order, start, start.plusMinutes(30));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(repository.findById("a").orElseThrow().snapshot().getBookings()).hasSize(1600);
+        assertThat(repository.findById("b").orElseThrow().snapshot().getBookings()).hasSize(1600);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example;
+
+import com.example.load.InMemoryRoomRepository;
+import com.example.load.VirtualClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Hold Tests")
+class HoldTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 19, 13, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 19, 14, 0);
+    private static final String ROOM_ID = "default-room-id";
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private VirtualClock clock;
+    private InMemoryRoomRepository roomRepository;
+    private NotificationService notificationService;
+    private BookingListener listener;
+    private BookingSystem bookingSystem;
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualClock(NOW);
+        roomRepository = new InMemoryRoomRepository();
+        roomRepository.save(new Room(ROOM_ID, "Rum"));
+        notificationService = mock(NotificationService.class);
+        listener = mock(BookingListener.class);
+        bookingSystem = new BookingSystem(clock, roomRepository, notificationService);
+        bookingSystem.addBookingListener(listener);
+    }
+
+    private Room room() {
+        return roomRepository.findById(ROOM_ID).orElseThrow();
+    }
+
+    private boolean slotIsFree() {
+        return !bookingSystem.getAvailableRooms(START, END).isEmpty();
+    }
+
+    @DisplayName("a hold blocks the slot until it is confirmed")
+    @Test
+    void confirmedHold() throws NotificationException {
+        Hold hold = bookingSystem.placeHold(ROOM_ID, START, END, TTL).orElseThrow();
+
+        assertThat(hold.expiresAt()).isEqualTo(NOW.plus(TTL));
+        assertThat(bookingSystem.bookRoom(ROOM_ID, START, END)).isFalse();
+        verify(listener).holdPlaced(hold.booking());
+        verify(listener, never()).bookingCreated(hold.booking());
+
+        clock.advance(Duration.ofMinutes(5));
+        assertThat(bookingSystem.confirmHold(hold.id())).isTrue();
+
+        assertThat(room().hasBooking(hold.id())).isTrue();
+        assertThat(bookingSystem.getHoldCount()).isZero();
+        verify(listener).bookingCreated(hold.booking());
+        verify(notificationService).sendBookingConfirmation(hold.booking());
+
+        clock.advance(Duration.ofMinutes(30));
+        assertThat(bookingSystem.expireHolds()).isZero();
+        assertThat(room().hasBooking(hold.id())).isTrue();
+    }
+
+    @DisplayName("a released hold frees the slot")
+    @Test
+    void releasedHold() throws NotificationException {
+        Hold hold = bookingSystem.placeHold(ROOM_ID, START, END, TTL).orElseThrow();
+
+        assertThat(bookingSystem.releaseHold(hold.id())).isTrue();
+
+        assertThat(slotIsFree()).isTrue();
+        assertThat(bookingSystem.confirmHold(hold.id())).isFalse();
+        verify(listener).holdReleased(hold.booking());
+        verify(notificationService, never()).sendBookingConfirmation(any());
+    }
+
+    @DisplayName("an expired hold is released by the wheel and can no longer be confirmed")
+    @Test
+    void expiredHold() {
+        Hold hold = bookingSystem.placeHold(ROOM_ID, START, END, TTL).orElseThrow();
+
+        clock.advance(Duration.ofMinutes(9));
+        assertThat(bookingSystem.expireHolds()).isZero();
+        assertThat(slotIsFree()).isFalse();
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(bookingSystem.expireHolds()).isEqualTo(1);
+
+        assertThat(slotIsFree()).isTrue();
+        assertThat(bookingSystem.confirmHold(hold.id())).isFalse();
+        verify(listener).holdReleased(hold.booking());
+    }
+
+    @DisplayName("a hold is never expired before expiresAt and can be confirmed until then")
+    @Test
+    void neverExpiresEarly() {
+        // Utgången ligger mitt i ett tick på hjulet
+        Duration ttl = TTL.plusMillis(500);
+        Hold hold = bookingSystem.placeHold(ROOM_ID, START, END, ttl).orElseThrow();
+
+        clock.advance(ttl.minusMillis(1));
+        assertThat(bookingSystem.expireHolds()).isZero();
+        assertThat(bookingSystem.confirmHold(hold.id())).isTrue();
+    }
+
+    @DisplayName("the scheduled expiry releases holds without being called")
+    @Test
+    void scheduledExpiry() {
+        Hold hold = bookingSystem.placeHold(ROOM_ID, START, END, TTL).orElseThrow();
+        clock.advance(TTL);
+
+        bookingSystem.startHoldExpiry(Duration.ofMillis(10));
+        try {
+            verify(listener, timeout(5000)).holdReleased(hold.booking());
+        } finally {
+            bookingSystem.stopHoldExpiry();
+        }
+
+        assertThat(bookingSystem.getHoldCount()).isZero();
+        assertThat(slotIsFree()).isTrue();
+        assertThatThrownBy(() -> bookingSystem.startHoldExpiry(Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("a hold past its ttl cannot be confirmed even before the wheel has run")
+    @Test
+    void lateConfirmation() {
+        Hold hold = bookingSystem.placeHold(ROOM_ID, START, END, TTL).orElseThrow();
+
+        clock.advance(TTL);
+
+        assertThat(bookingSystem.confirmHold(hold.id())).isFalse();
+        assertThat(slotIsFree()).isTrue();
+    }
+
+    @DisplayName("keeps holds out of the room repository so a restart cannot turn them into bookings")
+    @Test
+    void holdsAreNotPersisted() {
+        bookingSystem.placeHold(ROOM_ID, START, END, TTL).orElseThrow();
+
+        assertThat(room().snapshot().getBookings()).isEmpty();
+        assertThat(slotIsFree()).isFalse();
+        assertThat(bookingSystem.bookRecurringRoom(ROOM_ID, START.minusMinutes(30), END.minusMinutes(30),
+                RecurrenceRule.ofCount(RecurrenceRule.Frequency.DAILY, 1, 2))).isEmpty();
+        assertThat(bookingSystem.findRecurringConflicts(ROOM_ID, START, END,
+                RecurrenceRule.ofCount(RecurrenceRule.Frequency.DAILY, 1, 3))).containsExactly(START);
+
+        BookingSystem restarted = new BookingSystem(clock, roomRepository, notificationService);
+        assertThat(restarted.bookRoom(ROOM_ID, START, END)).isTrue();
+    }
+
+    @DisplayName("returns empty when the slot is already taken")
+    @Test
+    void unavailableSlot() {
+        assertThat(bookingSystem.bookRoom(ROOM_ID, START, END)).isTrue();
+
+        assertThat(bookingSystem.placeHold(ROOM_ID, START, END, TTL)).isEmpty();
+        assertThat(bookingSystem.getHoldCount()).isZero();
+    }
+
+    @DisplayName("cancelling a held booking releases the hold")
+    @Test
+    void cancelReleasesHold() {
+        Hold hold = bookingSystem.placeHold(ROOM_ID, START, END, TTL).orElseThrow();
+
+        assertThat(bookingSystem.cancelBooking(hold.id())).isTrue();
+
+        assertThat(bookingSystem.getHoldCount()).isZero();
+        verify(listener).holdReleased(hold.booking());
+        verify(listener, never()).bookingCancelled(any());
+    }
+
+    @DisplayName("expires many holds with different ttls without leaving any behind")
+    @Test
+    void manyHolds() {
+        List<Hold> placed = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            LocalDateTime start = START.plusHours(i);
+            placed.add(bookingSystem.placeHold(ROOM_ID, start, start.plusMinutes(30),
+                    Duration.ofSeconds(60 + (i % 7200))).orElseThrow());
+        }
+        for (int i = 0; i < placed.size(); i += 2) {
+            bookingSystem.confirmHold(placed.get(i).id());
+        }
+
+        int expired = 0;
+        for (int minute = 0; minute <= 125; minute++) {
+            expired += bookingSystem.expireHolds();
+            clock.advance(Duration.ofMinutes(1));
+        }
+
+        assertThat(expired).isEqualTo(2500);
+        assertThat(bookingSystem.getHoldCount()).isZero();
+        assertThat(room().snapshot().getBookings()).hasSize(2500);
+    }
+
+    @DisplayName("throws exception for a ttl that is not positive")
+    @Test
+    void invalidTtl() {
+        assertThatThrownBy(() -> bookingSystem.placeHold(ROOM_ID, START, END, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Hålltiden måste vara positiv");
+    }
+}
@@ -0,0 +1,98 @@
+package com.example;
+
+import com.example.load.FaultInjector;
+import com.example.load.InMemoryPaymentApi;
+import com.example.load.InMemoryRoomRepository;
+import com.example.load.LatencyRecorder;
+import com.example.load.LoadDriver;
+import com.example.load.LoadHarness;
+import com.example.load.LoadProfile;
+import com.example.load.LoadReport;
+import com.example.load.VirtualClock;
+import com.example.payment.ExternalServiceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Load harness Tests")
+class LoadHarnessTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+
+    @DisplayName("moves the virtual clock only when advanced")
+    @Test
+    void virtualClockAdvances() {
+        VirtualClock clock = new VirtualClock(NOW);
+
+        assertThat(clock.getCurrentTime()).isEqualTo(NOW);
+        clock.advance(Duration.ofMinutes(90));
+
+        assertThat(clock.getCurrentTime()).isEqualTo(NOW.plusMinutes(90));
+    }
+
+    @DisplayName("lets the in-memory repository stream rooms in id order")
+    @Test
+    void repositoryStreamsInIdOrder() {
+        InMemoryRoomRepository repository = new InMemoryRoomRepository();
+        repository.save(new Room("room-b", "B"));
+        repository.save(new Room("room-a", "A"));
+
+        repository.save(new Room("room-c", "C"));
+
+        assertThat(repository.streamAll().map(Room::getId)).containsExactly("room-a", "room-b", "room-c");
+        assertThat(repository.streamFrom("room-a").map(Room::getId)).containsExactly("room-b", "room-c");
+    }
+
+    @DisplayName("injects failures into the fakes")
+    @Test
+    void failuresAreInjected() {
+        FaultInjector alwaysFails = new FaultInjector(Duration.ZERO, Duration.ZERO, 1.0);
+
+        assertThatThrownBy(() -> new InMemoryRoomRepository(alwaysFails).findById("room"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new InMemoryPaymentApi(alwaysFails, 0).charge("key", BigDecimal.ONE))
+                .isInstanceOf(ExternalServiceException.class);
+    }
+
+    @DisplayName("reports percentiles within the histogram resolution")
+    @Test
+    void latencyPercentiles() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (long i = 1; i <= 10_000; i++) {
+            recorder.record(i * 1_000);
+        }
+
+        assertThat(recorder.count()).isEqualTo(10_000);
+        assertThat(recorder.percentile(50)).isBetween(5_000_000L, 5_400_000L);
+        assertThat(recorder.percentile(99)).isBetween(9_900_000L, 10_000_000L);
+        assertThat(recorder.max()).isEqualTo(10_000_000L);
+    }
+
+    @DisplayName("replays the configured mix at the target rate and reports per operation")
+    @Test
+    void driverProducesReport() {
+        LoadDriver driver = LoadHarness.inMemory(20, FaultInjector.NONE, 0);
+
+        LoadReport report = driver.run(new LoadProfile(60, 20, 20, 1_000, Duration.ofMillis(200)));
+
+        assertThat(report.totalCount()).isEqualTo(200);
+        assertThat(report.operations().get(LoadDriver.Operation.BOOK).count()).isPositive();
+        assertThat(report.operations().get(LoadDriver.Operation.PAY).errors()).isZero();
+        assertThat(report.operations().values())
+                .allSatisfy(stats -> assertThat(stats.p99()).isGreaterThanOrEqualTo(stats.p50()));
+        assertThat(report.format()).contains("BOOK", "CANCEL", "PAY");
+    }
+
+    @DisplayName("throws exception for a profile without any operations")
+    @Test
+    void invalidProfile() {
+        assertThatThrownBy(() -> new LoadProfile(0, 0, 0, 100, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Vikterna måste vara icke-negativa");
+    }
+}
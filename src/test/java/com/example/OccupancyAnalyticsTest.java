@@ -0,0 +1,149 @@
+package com.example;
+
+import com.example.analytics.OccupancyAnalytics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OccupancyAnalytics Tests")
+class OccupancyAnalyticsTest {
+    @Mock private TimeProvider timeProvider;
+    @Mock private NotificationService notificationService;
+    @Mock private RoomRepository roomRepository;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 19);
+
+    private OccupancyAnalytics analytics;
+    private BookingSystem bookingSystem;
+    private Room roomA;
+    private Room roomB;
+    private Room roomC;
+
+    @BeforeEach
+    void setUp() {
+        analytics = new OccupancyAnalytics(roomRepository);
+        bookingSystem = new BookingSystem(timeProvider, roomRepository, notificationService);
+        bookingSystem.addBookingListener(analytics);
+
+        roomA = new Room("room-a", "A");
+        roomB = new Room("room-b", "B");
+        roomC = new Room("room-c", "C");
+    }
+
+    private void stubRooms() {
+        lenient().when(timeProvider.getCurrentTime()).thenReturn(NOW);
+        lenient().when(roomRepository.findById("room-a")).thenReturn(Optional.of(roomA));
+        lenient().when(roomRepository.findById("room-b")).thenReturn(Optional.of(roomB));
+        lenient().when(roomRepository.findById("room-c")).thenReturn(Optional.of(roomC));
+        lenient().when(roomRepository.streamFrom(anyString())).thenAnswer(invocation -> Stream.of(roomA, roomB, roomC)
+                .filter(room -> room.getId().compareTo(invocation.getArgument(0)) > 0));
+    }
+
+    @DisplayName("splits bookings into hourly buckets as they are made")
+    @Test
+    void bookingsUpdateHourlyBuckets() {
+        stubRooms();
+
+        bookingSystem.bookRoom("room-a", DAY.atTime(13, 30), DAY.atTime(15, 0));
+        bookingSystem.bookRoom("room-b", DAY.atTime(14, 0), DAY.atTime(14, 45));
+
+        long[] hourly = analytics.hourlyBookedMinutes(DAY, DAY);
+
+        assertThat(hourly[13]).isEqualTo(30);
+        assertThat(hourly[14]).isEqualTo(105);
+        assertThat(analytics.peakHours(DAY, DAY, 2)).containsExactly(14, 13);
+    }
+
+    @DisplayName("answers utilization for a range of rooms and dates")
+    @Test
+    void utilizationForRoomRange() {
+        stubRooms();
+
+        bookingSystem.bookRoom("room-a", DAY.atTime(12, 0), DAY.atTime(18, 0));
+        bookingSystem.bookRoom("room-b", DAY.plusDays(1).atTime(0, 0), DAY.plusDays(1).atTime(12, 0));
+
+        OccupancyAnalytics.Utilization both = analytics.utilization("room-a", "room-b", DAY, DAY.plusDays(1));
+        OccupancyAnalytics.Utilization all = analytics.utilization("room-a", "room-c", DAY, DAY);
+
+        assertThat(both.rooms()).isEqualTo(2);
+        assertThat(both.bookedMinutes()).isEqualTo(18 * 60);
+        assertThat(both.ratio()).isEqualTo(18.0 / (2 * 2 * 24));
+        assertThat(all.rooms()).isEqualTo(3);
+        assertThat(all.bookedMinutes()).isEqualTo(6 * 60);
+        assertThat(all.availableMinutes()).isEqualTo(3 * 24 * 60);
+    }
+
+    @DisplayName("counts holds only once they are confirmed")
+    @Test
+    void holdsAreNotCounted() {
+        stubRooms();
+
+        Hold released = bookingSystem.placeHold("room-a", DAY.atTime(12, 0), DAY.atTime(14, 0), Duration.ofMinutes(10))
+                .orElseThrow();
+        Hold confirmed = bookingSystem.placeHold("room-b", DAY.atTime(12, 0), DAY.atTime(13, 0), Duration.ofMinutes(10))
+                .orElseThrow();
+
+        assertThat(analytics.utilization("room-a", "room-c", DAY, DAY).bookedMinutes()).isZero();
+
+        bookingSystem.releaseHold(released.id());
+        bookingSystem.confirmHold(confirmed.id());
+
+        assertThat(analytics.utilization("room-a", "room-c", DAY, DAY).bookedMinutes()).isEqualTo(60);
+    }
+
+    @DisplayName("removes minutes again when a booking is cancelled")
+    @Test
+    void cancellationRemovesMinutes() {
+        stubRooms();
+        when(roomRepository.findAll()).thenReturn(List.of(roomA, roomB));
+
+        bookingSystem.bookRoom("room-a", DAY.atTime(12, 0), DAY.atTime(18, 0));
+        String bookingId = roomA.snapshot().getBookings().getFirst().getId();
+
+        bookingSystem.cancelBooking(bookingId);
+
+        assertThat(analytics.dailyUtilization("room-a", DAY, DAY)).containsEntry(DAY, 0.0);
+    }
+
+    @DisplayName("counts every occurrence of a recurring booking")
+    @Test
+    void recurringBookingsAreExpanded() {
+        stubRooms();
+
+        bookingSystem.bookRecurringRoom("room-a", DAY.atTime(11, 0), DAY.atTime(12, 0),
+                RecurrenceRule.ofCount(RecurrenceRule.Frequency.DAILY, 1, 5));
+
+        assertThat(analytics.utilization("room-a", "room-a", DAY, DAY.plusDays(9)).bookedMinutes()).isEqualTo(5 * 60);
+        assertThat(analytics.dailyUtilization("room-a", DAY.plusDays(4), DAY.plusDays(5)))
+                .containsEntry(DAY.plusDays(4), 60.0 / (24 * 60))
+                .containsEntry(DAY.plusDays(5), 0.0);
+    }
+
+    @DisplayName("loads existing bookings at startup")
+    @Test
+    void loadsExistingRooms() {
+        stubRooms();
+        roomB.addBooking(new Booking("b1", "room-b", DAY.atTime(8, 0), DAY.atTime(10, 0)));
+
+        analytics.load(List.of(roomA, roomB));
+
+        assertThat(analytics.utilization("room-b", "room-b", DAY, DAY).bookedMinutes()).isEqualTo(120);
+    }
+}
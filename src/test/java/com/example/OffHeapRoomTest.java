@@ -0,0 +1,278 @@
+package com.example;
+
+import com.example.offheap.OffHeapRoom;
+import com.example.offheap.OffHeapRoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("OffHeapRoom Tests")
+class OffHeapRoomTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 19, 13, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 19, 14, 0);
+    private static final String ROOM_ID = "default-room-id";
+
+    private final SortableBookingIdGenerator ids = new SortableBookingIdGenerator(1);
+    private final OffHeapRoomRepository repository = new OffHeapRoomRepository();
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @DisplayName("answers availability the same way as the heap index")
+    @Test
+    void matchesHeapIndex() {
+        Random random = new Random(42);
+        OffHeapRoom offHeap = repository.createRoom(ROOM_ID, "Rum");
+        Room onHeap = new Room(ROOM_ID, "Rum");
+        List<String> bookingIds = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime start = START.plusMinutes(random.nextInt(60 * 24 * 30));
+            Booking booking = new Booking(ids.nextId(), ROOM_ID, start, start.plusMinutes(15 + random.nextInt(600)));
+            offHeap.addBooking(booking);
+            onHeap.addBooking(booking);
+            bookingIds.add(booking.getId());
+        }
+        for (int i = 0; i < 200; i++) {
+            String bookingId = bookingIds.get(random.nextInt(bookingIds.size()));
+            offHeap.removeBooking(bookingId);
+            onHeap.removeBooking(bookingId);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime start = START.minusDays(1).plusMinutes(random.nextInt(60 * 24 * 32));
+            LocalDateTime end = start.plusMinutes(random.nextInt(240));
+            assertThat(offHeap.isAvailable(start, end)).isEqualTo(onHeap.isAvailable(start, end));
+        }
+        assertThat(offHeap.getBookingCount()).isEqualTo(onHeap.snapshot().getBookings().size());
+        assertThat(offHeap.snapshot().getBookings())
+                .extracting(Booking::getId)
+                .containsExactlyElementsOf(onHeap.snapshot().getBookings().stream().map(Booking::getId).toList());
+    }
+
+    @DisplayName("reads back a stored booking and forgets it after removal")
+    @Test
+    void roundTrip() {
+        OffHeapRoom room = repository.createRoom(ROOM_ID, "Rum");
+        LocalDateTime start = START.withNano(123_456_789);
+        String bookingId = ids.nextId();
+
+        room.addBooking(new Booking(bookingId, ROOM_ID, start, END));
+
+        Booking stored = room.getBooking(bookingId);
+        assertThat(stored.getRoomId()).isEqualTo(ROOM_ID);
+        assertThat(stored.getStartTime()).isEqualTo(start);
+        assertThat(stored.getEndTime()).isEqualTo(END);
+        assertThat(room.isAvailable(END, END.plusHours(1))).isFalse();
+        assertThat(room.isAvailable(END.plusNanos(1), END.plusHours(1))).isTrue();
+
+        room.removeBooking(bookingId);
+
+        assertThat(room.hasBooking(bookingId)).isFalse();
+        assertThat(room.isAvailable(START, END)).isTrue();
+    }
+
+    @DisplayName("grows and shrinks its off-heap array as bookings come and go")
+    @Test
+    void growsAndShrinks() {
+        OffHeapRoom room = repository.createRoom(ROOM_ID, "Rum");
+        long initial = room.getReservedBytes();
+        List<String> bookingIds = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            String bookingId = ids.nextId();
+            room.addBooking(new Booking(bookingId, ROOM_ID, START.plusHours(i), END.plusHours(i)));
+            bookingIds.add(bookingId);
+        }
+        assertThat(room.getReservedBytes()).isGreaterThan(initial);
+
+        bookingIds.forEach(room::removeBooking);
+
+        assertThat(room.getBookingCount()).isZero();
+        assertThat(room.getReservedBytes()).isEqualTo(initial);
+    }
+
+    @DisplayName("stores booking ids that are not sortable ids through a table on the heap")
+    @Test
+    void storesUnsortableIds() {
+        OffHeapRoom room = repository.createRoom(ROOM_ID, "Rum");
+        String sortable = ids.nextId();
+        // Gemener och id:n som blir negativa avkodas men skulle inte komma tillbaka likadana
+        List<String> foreign = List.of("not-an-id", UUID.randomUUID().toString(), sortable.toLowerCase(), "ZZZZZZZZZZZZZ");
+
+        room.addBooking(new Booking(sortable, ROOM_ID, START, END));
+        for (int i = 0; i < foreign.size(); i++) {
+            room.addBooking(new Booking(foreign.get(i), ROOM_ID, START.plusDays(i + 1), END.plusDays(i + 1)));
+        }
+
+        assertThat(room.snapshot().getBookings()).extracting(Booking::getId)
+                .containsExactlyInAnyOrderElementsOf(Stream.concat(Stream.of(sortable), foreign.stream()).toList());
+        assertThat(room.getBooking("not-an-id").getStartTime()).isEqualTo(START.plusDays(1));
+        assertThat(room.isAvailable(START.plusDays(2), END.plusDays(2))).isFalse();
+
+        room.removeBooking(foreign.get(1));
+
+        assertThat(room.hasBooking(foreign.get(1))).isFalse();
+        assertThat(room.isAvailable(START.plusDays(2), END.plusDays(2))).isTrue();
+        assertThat(room.getBooking(sortable).getStartTime()).isEqualTo(START);
+        assertThat(room.hasBooking("unknown")).isFalse();
+    }
+
+    @DisplayName("works behind BookingSystem with its default booking ids")
+    @Test
+    void defaultBookingIds() {
+        Room heapRoom = new Room(ROOM_ID, "Rum");
+        String existing = UUID.randomUUID().toString();
+        heapRoom.addBooking(new Booking(existing, ROOM_ID, START.plusDays(1), END.plusDays(1)));
+        repository.save(heapRoom);
+        BookingSystem bookingSystem = new BookingSystem(() -> NOW, repository, mock(NotificationService.class));
+
+        assertThat(bookingSystem.bookRoom(ROOM_ID, START, END)).isTrue();
+        assertThat(bookingSystem.bookRoom(ROOM_ID, START.plusMinutes(30), END)).isFalse();
+        Hold hold = bookingSystem.placeHold(ROOM_ID, START.plusDays(2), END.plusDays(2), Duration.ofMinutes(10)).orElseThrow();
+        assertThat(bookingSystem.confirmHold(hold.id())).isTrue();
+        assertThat(bookingSystem.getAvailableRooms(START.plusDays(1), END.plusDays(1))).isEmpty();
+        assertThat(bookingSystem.cancelBooking(existing)).isTrue();
+        assertThat(bookingSystem.getAvailableRooms(START.plusDays(1), END.plusDays(1))).hasSize(1);
+        assertThat(repository.findById(ROOM_ID).orElseThrow().hasBooking(hold.id())).isTrue();
+    }
+
+    @DisplayName("keeps recurring bookings on the heap and checks them for availability")
+    @Test
+    void recurringBookings() {
+        OffHeapRoom room = repository.createRoom(ROOM_ID, "Rum");
+        RecurringBooking series = new RecurringBooking("series", ROOM_ID, START, END,
+                RecurrenceRule.ofCount(RecurrenceRule.Frequency.WEEKLY, 1, 3));
+
+        room.addRecurringBooking(series);
+
+        assertThat(room.getRecurringBooking("series")).isSameAs(series);
+        assertThat(room.snapshot().getRecurringBookings()).containsExactly(series);
+        assertThat(room.isAvailable(START.plusWeeks(2), END.plusWeeks(2))).isFalse();
+        assertThat(room.isAvailable(START.plusDays(1), END.plusDays(1))).isTrue();
+        assertThat(room.findConflicts(new RecurringBooking("other", ROOM_ID, START.plusWeeks(1), END.plusWeeks(1),
+                RecurrenceRule.ofCount(RecurrenceRule.Frequency.DAILY, 1, 2)))).containsExactly(START.plusWeeks(1));
+
+        room.removeRecurringBooking("series");
+
+        assertThat(room.hasRecurringBooking("series")).isFalse();
+        assertThat(room.isAvailable(START.plusWeeks(2), END.plusWeeks(2))).isTrue();
+    }
+
+    @DisplayName("copies recurring bookings when a heap room is saved")
+    @Test
+    void savesRoomWithSeries() {
+        Room heapRoom = new Room(ROOM_ID, "Rum");
+        heapRoom.addRecurringBooking(new RecurringBooking("series", ROOM_ID, START, END,
+                RecurrenceRule.ofCount(RecurrenceRule.Frequency.WEEKLY, 1, 3)));
+
+        repository.save(heapRoom);
+
+        Room stored = repository.findById(ROOM_ID).orElseThrow();
+        assertThat(stored).isInstanceOf(OffHeapRoom.class);
+        assertThat(stored.hasRecurringBooking("series")).isTrue();
+        assertThat(stored.isAvailable(START.plusWeeks(1), END.plusWeeks(1))).isFalse();
+    }
+
+    @DisplayName("books recurring bookings through BookingSystem")
+    @Test
+    void bookRecurringRoom() {
+        repository.createRoom(ROOM_ID, "Rum");
+        BookingSystem bookingSystem = new BookingSystem(() -> NOW, repository, mock(NotificationService.class));
+        bookingSystem.setBookingIdGenerator(ids);
+        RecurrenceRule rule = RecurrenceRule.ofCount(RecurrenceRule.Frequency.WEEKLY, 1, 4);
+
+        assertThat(bookingSystem.bookRecurringRoom(ROOM_ID, START, END, rule)).isPresent();
+        assertThat(bookingSystem.bookRecurringRoom(ROOM_ID, START.plusWeeks(3), END.plusWeeks(3), rule)).isEmpty();
+        assertThat(bookingSystem.bookRoom(ROOM_ID, START.plusWeeks(1), END.plusWeeks(1))).isFalse();
+    }
+
+    @DisplayName("copies heap rooms on save and works behind BookingSystem")
+    @Test
+    void worksBehindBookingSystem() {
+        Room heapRoom = new Room(ROOM_ID, "Rum");
+        heapRoom.addBooking(new Booking(ids.nextId(), ROOM_ID, START.plusDays(1), END.plusDays(1)));
+        repository.save(heapRoom);
+        BookingSystem bookingSystem = new BookingSystem(() -> NOW, repository, mock(NotificationService.class));
+        bookingSystem.setBookingIdGenerator(ids);
+
+        assertThat(repository.findById(ROOM_ID).orElseThrow()).isInstanceOf(OffHeapRoom.class);
+        assertThat(bookingSystem.bookRoom(ROOM_ID, START, END)).isTrue();
+        assertThat(bookingSystem.bookRoom(ROOM_ID, START.plusMinutes(30), END)).isFalse();
+        assertThat(bookingSystem.getAvailableRooms(START.plusDays(1), END.plusDays(1))).isEmpty();
+
+        String bookingId = repository.findById(ROOM_ID).orElseThrow().snapshot().getBookings().getFirst().getId();
+        assertThat(bookingSystem.cancelBooking(bookingId)).isTrue();
+        assertThat(bookingSystem.getAvailableRooms(START, END)).hasSize(1);
+    }
+
+    @DisplayName("copies a saved heap room into the room already stored instead of closing it")
+    @Test
+    void savesIntoExistingRoom() {
+        OffHeapRoom stored = repository.createRoom(ROOM_ID, "Rum");
+        stored.addBooking(new Booking(ids.nextId(), ROOM_ID, START, END));
+        Room heapRoom = new Room(ROOM_ID, "Rum");
+        String bookingId = ids.nextId();
+        heapRoom.addBooking(new Booking(bookingId, ROOM_ID, START.plusDays(1), END.plusDays(1)));
+
+        repository.save(heapRoom);
+
+        assertThat(repository.findById(ROOM_ID).orElseThrow()).isSameAs(stored);
+        assertThat(stored.hasBooking(bookingId)).isTrue();
+        assertThat(stored.isAvailable(START, END)).isTrue();
+        assertThat(stored.getBookingCount()).isEqualTo(1);
+    }
+
+    @DisplayName("lets readers see a whole version while another thread writes")
+    @Test
+    void readsWhileWriting() throws InterruptedException {
+        OffHeapRoom room = repository.createRoom(ROOM_ID, "Rum");
+        String permanent = ids.nextId();
+        room.addBooking(new Booking(permanent, ROOM_ID, START, END));
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 1; i <= 2000; i++) {
+                String bookingId = ids.nextId();
+                room.addBooking(new Booking(bookingId, ROOM_ID, START.plusHours(i), END.plusHours(i)));
+                if (i % 2 == 0) {
+                    room.removeBooking(bookingId);
+                }
+            }
+        });
+
+        while (writer.isAlive()) {
+            assertThat(room.isAvailable(START, END)).isFalse();
+            assertThat(room.getBooking(permanent).getStartTime()).isEqualTo(START);
+        }
+        writer.join();
+
+        assertThat(room.getBookingCount()).isEqualTo(1001);
+    }
+
+    @DisplayName("throws once the room has been closed")
+    @Test
+    void closedRoom() {
+        OffHeapRoom room = repository.createRoom(ROOM_ID, "Rum");
+
+        repository.close();
+
+        assertThat(room.getReservedBytes()).isZero();
+        assertThatThrownBy(() -> room.isAvailable(START, END))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Rummet är stängt");
+    }
+}
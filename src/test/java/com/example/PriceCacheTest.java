@@ -0,0 +1,120 @@
+package com.example;
+
+import com.example.shop.Item;
+import com.example.shop.ItemPercentageDiscount;
+import com.example.shop.PriceCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PriceCacheTest {
+
+    private static Item item(String id, String price, PriceCache cache, String... discounts) {
+        Item item = new Item(id, new BigDecimal(price), 1, cache);
+        for (String discount : discounts) {
+            item.addDiscount(new ItemPercentageDiscount(new BigDecimal(discount)));
+        }
+        return item;
+    }
+
+    @DisplayName("items with the same price and discounts share one cached price")
+    @Test
+    void sharedEntry() {
+        PriceCache cache = new PriceCache(100);
+        Item first = item("sku-1", "100.0", cache, "0.1", "0.25");
+        Item second = item("sku-1", "100.0", cache, "0.1", "0.25");
+
+        BigDecimal firstPrice = first.getPrice();
+        BigDecimal secondPrice = second.getPrice();
+
+        assertThat(firstPrice).isEqualByComparingTo("67.5");
+        assertThat(secondPrice).isEqualTo(firstPrice);
+
+        assertThat(cache.stats().misses()).isEqualTo(1);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+    }
+
+    @DisplayName("gives the same price as an item without a cache")
+    @Test
+    void sameAsUncached() {
+        PriceCache cache = new PriceCache(100);
+        Item cached = item("sku-1", "100.00", cache, "0.25", "0.1");
+        Item plain = item("sku-1", "100.00", null, "0.25", "0.1");
+
+        assertThat(cached.getPrice()).isEqualTo(plain.getPrice());
+    }
+
+    @DisplayName("prices an item again after a discount is added")
+    @Test
+    void discountAddedAfterLookup() {
+        PriceCache cache = new PriceCache(100);
+        Item item = item("sku-1", "100.0", cache, "0.1");
+
+        assertThat(item.getPrice()).isEqualByComparingTo("90");
+        item.addDiscount(new ItemPercentageDiscount(new BigDecimal("0.5")));
+
+        assertThat(item.getPrice()).isEqualByComparingTo("45");
+        assertThat(cache.stats().misses()).isEqualTo(2);
+    }
+
+    @DisplayName("treats scale and discount order as part of the key")
+    @Test
+    void keyIsScaleAndOrderSensitive() {
+        PriceCache cache = new PriceCache(100);
+
+        BigDecimal scaleOne = item("a", "100.0", cache, "0.1").getPrice();
+        BigDecimal scaleTwo = item("b", "100.00", cache, "0.1").getPrice();
+        item("c", "100.0", cache, "0.1", "0.25").getPrice();
+        item("d", "100.0", cache, "0.25", "0.1").getPrice();
+
+        assertThat(scaleOne.scale()).isNotEqualTo(scaleTwo.scale());
+        assertThat(cache.stats().misses()).isEqualTo(4);
+    }
+
+    @DisplayName("recomputes every price after invalidateAll")
+    @Test
+    void bulkInvalidation() {
+        PriceCache cache = new PriceCache(100);
+        AtomicInteger loads = new AtomicInteger();
+        List<BigDecimal> prices = List.of(new BigDecimal("10"), new BigDecimal("20"), new BigDecimal("30"));
+
+        prices.forEach(price -> cache.getPrice(price, List.of(), () -> {
+            loads.incrementAndGet();
+            return price;
+        }));
+        cache.invalidateAll();
+        prices.forEach(price -> cache.getPrice(price, List.of(), () -> {
+            loads.incrementAndGet();
+            return price;
+        }));
+
+        assertThat(loads.get()).isEqualTo(6);
+    }
+
+    @DisplayName("never holds more entries than its limit")
+    @Test
+    void boundedSize() {
+        PriceCache cache = new PriceCache(50);
+
+        for (int i = 0; i < 1000; i++) {
+            item("sku-" + i, String.valueOf(i + 1), cache, "0.5").getPrice();
+        }
+
+        assertThat(cache.stats().size()).isLessThanOrEqualTo(50);
+        assertThat(cache.stats().evictions()).isGreaterThanOrEqualTo(950);
+    }
+
+    @DisplayName("throws exception if the cache cannot hold any entry")
+    @Test
+    void invalidSize() {
+        assertThatThrownBy(() -> new PriceCache(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cache must hold at least one entry");
+    }
+}
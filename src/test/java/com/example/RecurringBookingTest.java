@@ -0,0 +1,158 @@
+package com.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Recurring booking Tests")
+class RecurringBookingTest {
+    @Mock private TimeProvider timeProvider;
+    @Mock private NotificationService notificationService;
+    @Mock private RoomRepository roomRepository;
+
+    @InjectMocks
+    private BookingSystem bookingSystem;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    // Måndagar 13-14
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 19, 13, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 19, 14, 0);
+    private static final String ROOM_ID = "default-room-id";
+    private static final RecurrenceRule WEEKLY_TEN_TIMES = RecurrenceRule.ofCount(RecurrenceRule.Frequency.WEEKLY, 1, 10);
+
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        room = new Room(ROOM_ID, "Rum");
+    }
+
+    @DisplayName("expands occurrences from the rule and skips exceptions")
+    @Test
+    void occurrencesFollowRule() {
+        RecurringBooking series = new RecurringBooking("series", ROOM_ID, START, END,
+                RecurrenceRule.ofUntil(RecurrenceRule.Frequency.WEEKLY, 2, LocalDate.of(2026, 3, 2)))
+                .withException(LocalDate.of(2026, 2, 2));
+
+        List<LocalDateTime> starts = series.occurrences().map(Booking::getStartTime).toList();
+
+        assertThat(starts).containsExactly(
+                START,
+                LocalDateTime.of(2026, 2, 16, 13, 0),
+                LocalDateTime.of(2026, 3, 2, 13, 0));
+        assertThat(series.getLastEnd()).isEqualTo(LocalDateTime.of(2026, 3, 2, 14, 0));
+    }
+
+    @DisplayName("blocks only the slots covered by an occurrence")
+    @Test
+    void seriesBlocksOccurrenceSlots() {
+        room.addRecurringBooking(new RecurringBooking("series", ROOM_ID, START, END, WEEKLY_TEN_TIMES));
+
+        assertThat(room.isAvailable(START.plusWeeks(3), END.plusWeeks(3))).isFalse();
+        assertThat(room.isAvailable(START.plusWeeks(3).plusDays(1), END.plusWeeks(3).plusDays(1))).isTrue();
+        assertThat(room.isAvailable(START.plusWeeks(10), END.plusWeeks(10))).isTrue();
+    }
+
+    @DisplayName("finds every occurrence that conflicts with existing bookings")
+    @Test
+    void findsConflictsInOneSweep() {
+        room.addBooking(new Booking("b1", ROOM_ID, START.plusWeeks(2).plusMinutes(30), END.plusWeeks(2)));
+        room.addBooking(new Booking("b2", ROOM_ID, START.plusDays(1), END.plusDays(1)));
+        // En lång bokning som täcker vecka 5 och 6
+        room.addBooking(new Booking("b3", ROOM_ID, START.plusWeeks(5).minusDays(1), START.plusWeeks(6).plusHours(3)));
+
+        List<LocalDateTime> conflicts = room.findConflicts(
+                new RecurringBooking("series", ROOM_ID, START, END, WEEKLY_TEN_TIMES));
+
+        assertThat(conflicts).containsExactly(START.plusWeeks(2), START.plusWeeks(5), START.plusWeeks(6));
+    }
+
+    @DisplayName("detects conflicts between two series")
+    @Test
+    void findsConflictsWithOtherSeries() {
+        room.addRecurringBooking(new RecurringBooking("biweekly", ROOM_ID, START, END,
+                RecurrenceRule.ofCount(RecurrenceRule.Frequency.WEEKLY, 2, 3)));
+
+        List<LocalDateTime> conflicts = room.findConflicts(
+                new RecurringBooking("series", ROOM_ID, START.plusWeeks(1), END.plusWeeks(1), WEEKLY_TEN_TIMES));
+
+        assertThat(conflicts).containsExactly(START.plusWeeks(2), START.plusWeeks(4));
+    }
+
+    @DisplayName("books the whole series when there are no conflicts")
+    @Test
+    void booksSeries() throws NotificationException {
+        when(timeProvider.getCurrentTime()).thenReturn(NOW);
+        when(roomRepository.findById(ROOM_ID)).thenReturn(Optional.of(room));
+
+        Optional<RecurringBooking> series = bookingSystem.bookRecurringRoom(ROOM_ID, START, END, WEEKLY_TEN_TIMES);
+
+        assertThat(series).isPresent();
+        assertThat(room.hasRecurringBooking(series.get().getId())).isTrue();
+        verify(roomRepository).save(room);
+        verify(notificationService).sendRecurringBookingConfirmation(series.get());
+    }
+
+    @DisplayName("does not book any occurrence when one of them conflicts")
+    @Test
+    void rejectsConflictingSeries() {
+        room.addBooking(new Booking("b1", ROOM_ID, START.plusWeeks(9), END.plusWeeks(9)));
+        when(timeProvider.getCurrentTime()).thenReturn(NOW);
+        when(roomRepository.findById(ROOM_ID)).thenReturn(Optional.of(room));
+
+        Optional<RecurringBooking> series = bookingSystem.bookRecurringRoom(ROOM_ID, START, END, WEEKLY_TEN_TIMES);
+
+        assertThat(series).isEmpty();
+        assertThat(room.isAvailable(START, END)).isTrue();
+        verify(roomRepository, never()).save(any());
+    }
+
+    @DisplayName("cancels a single occurrence by adding an exception")
+    @Test
+    void cancelsOccurrence() throws NotificationException {
+        RecurringBooking series = new RecurringBooking("series", ROOM_ID, START, END, WEEKLY_TEN_TIMES);
+        room.addRecurringBooking(series);
+        when(timeProvider.getCurrentTime()).thenReturn(NOW);
+        when(roomRepository.findAll()).thenReturn(List.of(room));
+
+        boolean result = bookingSystem.cancelOccurrence("series", LocalDate.of(2026, 1, 26));
+
+        assertThat(result).isTrue();
+        assertThat(room.isAvailable(START.plusWeeks(1), END.plusWeeks(1))).isTrue();
+        verify(notificationService).sendCancellationConfirmation(any(Booking.class));
+    }
+
+    @DisplayName("throws exception when cancelling a series that has already started")
+    @Test
+    void startedSeriesCannotBeCancelled() {
+        room.addRecurringBooking(new RecurringBooking("series", ROOM_ID, START, END, WEEKLY_TEN_TIMES));
+        when(timeProvider.getCurrentTime()).thenReturn(START.plusDays(1));
+        when(roomRepository.findAll()).thenReturn(List.of(room));
+
+        assertThatThrownBy(() -> bookingSystem.cancelRecurringBooking("series"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Kan inte avboka påbörjad bokningsserie");
+    }
+
+    @DisplayName("throws exception when the rule has no end")
+    @Test
+    void ruleRequiresEnd() {
+        assertThatThrownBy(() -> new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Ange antingen ett slutdatum eller ett antal tillfällen");
+    }
+}
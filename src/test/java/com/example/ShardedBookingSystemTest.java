@@ -0,0 +1,207 @@
+package com.example;
+
+import com.example.shard.BookingShard;
+import com.example.shard.RemoteBookingShard;
+import com.example.shard.ShardServer;
+import com.example.shard.ShardedBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("ShardedBookingSystem Tests")
+class ShardedBookingSystemTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 19, 13, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 19, 14, 0);
+    private static final int SHARD_COUNT = 3;
+    private static final int VIRTUAL_NODES = 64;
+
+    private final List<ShardServer> servers = new ArrayList<>();
+    private final List<RemoteBookingShard> clients = new ArrayList<>();
+    private final Map<Integer, InMemoryRoomRepository> repositories = new HashMap<>();
+    private final Map<Integer, NotificationService> notificationServices = new HashMap<>();
+    private ExecutorService executor;
+    private ShardedBookingSystem shardedBookingSystem;
+
+    // Enkel in-memory-implementation så att varje shard har ett eget, riktigt rumsregister
+    private static class InMemoryRoomRepository implements RoomRepository {
+        private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<Room> findById(String id) {
+            return Optional.ofNullable(rooms.get(id));
+        }
+
+        @Override
+        public List<Room> findAll() {
+            return new ArrayList<>(rooms.values());
+        }
+
+        @Override
+        public void save(Room room) {
+            rooms.put(room.getId(), room);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Map<Integer, BookingShard> shards = new HashMap<>();
+        for (int shardId = 0; shardId < SHARD_COUNT; shardId++) {
+            InMemoryRoomRepository repository = new InMemoryRoomRepository();
+            NotificationService notificationService = mock(NotificationService.class);
+            BookingSystem bookingSystem = new BookingSystem(() -> NOW, repository, notificationService);
+            bookingSystem.setBookingIdGenerator(ShardedBookingSystem.bookingIdGenerator(shardId));
+
+            ShardServer server = new ShardServer(bookingSystem, 0);
+            server.start();
+            RemoteBookingShard client = new RemoteBookingShard(InetAddress.getLoopbackAddress(), server.getPort());
+            servers.add(server);
+            clients.add(client);
+            repositories.put(shardId, repository);
+            notificationServices.put(shardId, notificationService);
+            shards.put(shardId, client);
+        }
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        shardedBookingSystem = new ShardedBookingSystem(shards, VIRTUAL_NODES, executor);
+
+        // Rummen läggs hos den shard som ringen utser som ägare
+        for (int i = 0; i < 12; i++) {
+            String roomId = "room-" + i;
+            repositories.get(shardedBookingSystem.shardFor(roomId)).save(new Room(roomId, "Rum " + i));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.forEach(RemoteBookingShard::close);
+        servers.forEach(ShardServer::close);
+        executor.shutdown();
+    }
+
+    @DisplayName("spreads rooms over more than one shard")
+    @Test
+    void roomsAreSpreadOverShards() {
+        long shardsWithRooms = repositories.values().stream()
+                .filter(repository -> !repository.findAll().isEmpty())
+                .count();
+
+        assertThat(shardsWithRooms).isGreaterThan(1);
+    }
+
+    @DisplayName("books the room on its owning shard")
+    @Test
+    void bookingIsRoutedToOwner() {
+        int owner = shardedBookingSystem.shardFor("room-3");
+
+        boolean result = shardedBookingSystem.bookRoom("room-3", START, END);
+
+        assertThat(result).isTrue();
+        assertThat(repositories.get(owner).findById("room-3").orElseThrow().isAvailable(START, END)).isFalse();
+    }
+
+    @DisplayName("gathers available rooms from every shard")
+    @Test
+    void availableRoomsAreGatheredFromAllShards() {
+        shardedBookingSystem.bookRoom("room-3", START, END);
+
+        List<String> available = shardedBookingSystem.getAvailableRoomIds(START, END);
+
+        assertThat(available).hasSize(11).doesNotContain("room-3");
+    }
+
+    @DisplayName("cancels a booking directly on the shard encoded in its id")
+    @Test
+    void cancellationIsRoutedByBookingId() throws NotificationException {
+        int owner = shardedBookingSystem.shardFor("room-5");
+        shardedBookingSystem.bookRoom("room-5", START, END);
+
+        ArgumentCaptor<Booking> booking = ArgumentCaptor.forClass(Booking.class);
+        verify(notificationServices.get(owner)).sendBookingConfirmation(booking.capture());
+
+        boolean result = shardedBookingSystem.cancelBooking(booking.getValue().getId());
+
+        assertThat(result).isTrue();
+        assertThat(shardedBookingSystem.getAvailableRoomIds(START, END)).contains("room-5");
+    }
+
+    @DisplayName("returns false for a booking id without a known shard")
+    @Test
+    void unknownShardInBookingId() {
+        assertThat(shardedBookingSystem.cancelBooking("not-a-shard-id")).isFalse();
+        assertThat(shardedBookingSystem.cancelBooking(new SortableBookingIdGenerator(42).nextId())).isFalse();
+    }
+
+    @DisplayName("rethrows shard validation errors with their original type")
+    @Test
+    void remoteErrorsKeepTheirType() {
+        assertThatThrownBy(() -> shardedBookingSystem.bookRoom("room-1", NOW.minusHours(1), END))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Kan inte boka tid i dåtid");
+    }
+
+    @DisplayName("binds to the given address and stops waiting once closed")
+    @Test
+    void explicitBindAddress() throws Exception {
+        InMemoryRoomRepository repository = new InMemoryRoomRepository();
+        repository.save(new Room("room-x", "Rum X"));
+        BookingSystem bookingSystem = new BookingSystem(() -> NOW, repository, mock(NotificationService.class));
+        InetAddress address = InetAddress.getByName("127.0.0.1");
+
+        try (ShardServer server = new ShardServer(bookingSystem, address, 0);
+             RemoteBookingShard client = connect(server, address)) {
+            assertThat(client.bookRoom("room-x", START, END)).isTrue();
+
+            Thread waiter = Thread.ofPlatform().start(() -> {
+                try {
+                    server.awaitClose();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            server.close();
+            waiter.join(5000);
+            assertThat(waiter.isAlive()).isFalse();
+        }
+    }
+
+    private static RemoteBookingShard connect(ShardServer server, InetAddress address) {
+        server.start();
+        return new RemoteBookingShard(address, server.getPort());
+    }
+
+    @DisplayName("serves concurrent calls to one shard over several connections")
+    @Test
+    void concurrentCallsToOneShard() throws Exception {
+        int owner = shardedBookingSystem.shardFor("room-2");
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime start = START.plusHours(i);
+            results.add(executor.submit(() -> shardedBookingSystem.bookRoom("room-2", start, start.plusMinutes(30))));
+        }
+
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+        assertThat(repositories.get(owner).findById("room-2").orElseThrow().snapshot().getBookings()).hasSize(50);
+    }
+}
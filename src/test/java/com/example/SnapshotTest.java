@@ -0,0 +1,196 @@
+package com.example;
+
+import com.example.load.InMemoryRoomRepository;
+import com.example.snapshot.SnapshotFormat;
+import com.example.snapshot.SnapshotLoader;
+import com.example.snapshot.SnapshotWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Snapshot Tests")
+class SnapshotTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 19, 10, 0);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 19, 13, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 19, 14, 0);
+
+    @TempDir
+    private Path directory;
+
+    private static List<Room> rooms() {
+        Room a = new Room("room-a", "Stora salen");
+        a.addBooking(new Booking("b1", "room-a", START, END));
+        a.addBooking(new Booking("b2", "room-a", START.plusDays(1).withNano(500), END.plusDays(1)));
+        a.addRecurringBooking(new RecurringBooking("s1", "room-a", START.plusHours(3), END.plusHours(3),
+                RecurrenceRule.ofCount(RecurrenceRule.Frequency.WEEKLY, 1, 10))
+                .withException(LocalDate.of(2026, 1, 26)));
+
+        Room b = new Room("room-b", "Lilla rummet");
+        b.addRecurringBooking(new RecurringBooking("s2", "room-b", START, END,
+                RecurrenceRule.ofUntil(RecurrenceRule.Frequency.DAILY, 2, LocalDate.of(2026, 2, 1))));
+
+        return List.of(a, b, new Room("room-c", "Tomt"));
+    }
+
+    private static byte[] write(List<Room> rooms) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotFormat.write(rooms, out);
+        return out.toByteArray();
+    }
+
+    @DisplayName("reads back the same rooms, bookings and series")
+    @Test
+    void roundTrip() throws IOException {
+        List<Room> original = rooms();
+
+        List<Room> restored = SnapshotFormat.read(new ByteArrayInputStream(write(original)));
+
+        assertThat(restored).extracting(Room::getId).containsExactly("room-a", "room-b", "room-c");
+        assertThat(restored).extracting(Room::getName).containsExactly("Stora salen", "Lilla rummet", "Tomt");
+        for (int i = 0; i < original.size(); i++) {
+            BookingIndex expected = original.get(i).snapshot();
+            BookingIndex actual = restored.get(i).snapshot();
+            assertThat(actual.getBookings()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(expected.getBookings());
+            assertThat(actual.getRecurringBookings()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(expected.getRecurringBookings());
+        }
+
+        Room a = restored.getFirst();
+        assertThat(a.isAvailable(START, END)).isFalse();
+        assertThat(a.isAvailable(START.plusDays(7).plusHours(3), END.plusDays(7).plusHours(3))).isTrue();
+        assertThat(a.isAvailable(START.plusDays(14).plusHours(3), END.plusDays(14).plusHours(3))).isFalse();
+    }
+
+    @DisplayName("rejects a snapshot with a flipped byte")
+    @Test
+    void corruptedSnapshot() throws IOException {
+        byte[] bytes = write(rooms());
+        bytes[bytes.length / 2] ^= 0x01;
+
+        assertThatThrownBy(() -> SnapshotFormat.read(new ByteArrayInputStream(bytes)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Ogiltig ögonblicksbild");
+    }
+
+    @DisplayName("rejects a file that is not a snapshot")
+    @Test
+    void wrongMagic() {
+        byte[] bytes = "not a snapshot at all".getBytes();
+
+        assertThatThrownBy(() -> SnapshotFormat.read(new ByteArrayInputStream(bytes)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("fel magiskt tal");
+    }
+
+    @DisplayName("writes a file that a new instance loads and serves from")
+    @Test
+    void writeAndLoad() throws IOException {
+        InMemoryRoomRepository source = new InMemoryRoomRepository();
+        rooms().forEach(source::save);
+        Path path = directory.resolve("rooms.snapshot");
+
+        try (SnapshotWriter writer = new SnapshotWriter(source, path)) {
+            writer.writeNow();
+        }
+
+        assertThat(path).exists();
+        assertThat(directory.resolve("rooms.snapshot.tmp")).doesNotExist();
+
+        InMemoryRoomRepository target = new InMemoryRoomRepository();
+        assertThat(SnapshotLoader.load(path, target)).isEqualTo(3);
+
+        BookingSystem bookingSystem = new BookingSystem(() -> NOW, target, mock(NotificationService.class));
+        SnapshotLoader.warmUp(bookingSystem, NOW, 100);
+        assertThat(bookingSystem.getAvailableRooms(START, END)).extracting(Room::getId).containsExactly("room-c");
+        assertThat(bookingSystem.cancelBooking("b1")).isTrue();
+    }
+
+    @DisplayName("never persists a hold, even when written while the hold is being placed")
+    @Test
+    void holdsAreNotPersisted() throws IOException {
+        InMemoryRoomRepository source = new InMemoryRoomRepository();
+        rooms().forEach(source::save);
+        SnapshotWriter during = new SnapshotWriter(source, directory.resolve("during.snapshot"));
+        SnapshotWriter after = new SnapshotWriter(source, directory.resolve("after.snapshot"));
+        BookingSystem bookingSystem = new BookingSystem(() -> NOW, source, mock(NotificationService.class));
+        SortableBookingIdGenerator ids = new SortableBookingIdGenerator(1);
+
+        // Id:t delas ut mellan tillgänglighetskontrollen och registreringen av holden,
+        // lyssnaren anropas när holden är registrerad
+        bookingSystem.setBookingIdGenerator(() -> {
+            writeQuietly(during);
+            return ids.nextId();
+        });
+        bookingSystem.addBookingListener(new BookingListener() {
+            @Override
+            public void holdPlaced(Booking booking) {
+                writeQuietly(after);
+            }
+        });
+        Hold hold = bookingSystem.placeHold("room-c", START, END, Duration.ofMinutes(10)).orElseThrow();
+
+        for (String file : List.of("during.snapshot", "after.snapshot")) {
+            InMemoryRoomRepository target = new InMemoryRoomRepository();
+            SnapshotLoader.load(directory.resolve(file), target);
+            Room restored = target.findById("room-c").orElseThrow();
+            assertThat(restored.hasBooking(hold.id())).isFalse();
+            assertThat(restored.isAvailable(START, END)).isTrue();
+        }
+
+        assertThat(bookingSystem.confirmHold(hold.id())).isTrue();
+        after.writeNow();
+        InMemoryRoomRepository target = new InMemoryRoomRepository();
+        SnapshotLoader.load(directory.resolve("after.snapshot"), target);
+        assertThat(target.findById("room-c").orElseThrow().hasBooking(hold.id())).isTrue();
+    }
+
+    private static void writeQuietly(SnapshotWriter writer) {
+        try {
+            writer.writeNow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DisplayName("loads nothing when there is no snapshot yet")
+    @Test
+    void missingSnapshot() throws IOException {
+        InMemoryRoomRepository target = new InMemoryRoomRepository();
+
+        assertThat(SnapshotLoader.load(directory.resolve("missing.snapshot"), target)).isZero();
+        assertThat(target.findAll()).isEmpty();
+    }
+
+    @DisplayName("writes snapshots periodically in the background")
+    @Test
+    void periodicWrites() throws Exception {
+        InMemoryRoomRepository source = new InMemoryRoomRepository();
+        rooms().forEach(source::save);
+        Path path = directory.resolve("rooms.snapshot");
+
+        try (SnapshotWriter writer = new SnapshotWriter(source, path)) {
+            writer.start(Duration.ofMillis(20));
+            for (int i = 0; i < 250 && !Files.exists(path); i++) {
+                Thread.sleep(20);
+            }
+            assertThat(path).exists();
+            assertThat(writer.getLastFailure()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("SortableBookingIdGenerator Tests")
+class SortableBookingIdGeneratorTest {
+    private static final long NOW = SortableBookingIdGenerator.EPOCH.toEpochMilli() + 1_000_000;
+
+    @DisplayName("encodes node and timestamp into the id")
+    @Test
+    void idContainsNodeAndTime() {
+        SortableBookingIdGenerator generator = new SortableBookingIdGenerator(7, () -> NOW);
+
+        long id = generator.nextLongId();
+
+        assertThat(SortableBookingIdGenerator.nodeOf(id)).isEqualTo(7);
+        assertThat(SortableBookingIdGenerator.timestampOf(id).toEpochMilli()).isEqualTo(NOW);
+    }
+
+    @DisplayName("keeps ids increasing when the sequence runs out within one millisecond")
+    @Test
+    void idsIncreaseWithinSameMillisecond() {
+        SortableBookingIdGenerator generator = new SortableBookingIdGenerator(1, () -> NOW);
+
+        long previous = generator.nextLongId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextLongId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @DisplayName("keeps ids increasing when the clock goes backwards")
+    @Test
+    void idsIncreaseWhenClockGoesBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SortableBookingIdGenerator generator = new SortableBookingIdGenerator(1, clock::get);
+
+        long before = generator.nextLongId();
+        clock.addAndGet(-5_000);
+
+        assertThat(generator.nextLongId()).isGreaterThan(before);
+    }
+
+    @DisplayName("sorts encoded ids in the same order as the numeric ids")
+    @Test
+    void encodedIdsSortLikeNumbers() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SortableBookingIdGenerator generator = new SortableBookingIdGenerator(3, clock::get);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(i % 3);
+            ids.add(generator.nextId());
+        }
+
+        assertThat(ids).isSorted();
+        assertThat(ids).allSatisfy(id -> assertThat(id).hasSize(SortableBookingIdGenerator.ENCODED_LENGTH));
+    }
+
+    @DisplayName("decodes an encoded id back to the same value")
+    @Test
+    void encodeDecodeRoundTrip() {
+        long id = new SortableBookingIdGenerator(1023).nextLongId();
+
+        assertThat(SortableBookingIdGenerator.decode(SortableBookingIdGenerator.encode(id))).isEqualTo(id);
+    }
+
+    @DisplayName("hands out unique ids across threads")
+    @Test
+    void uniqueAcrossThreads() throws InterruptedException {
+        SortableBookingIdGenerator generator = new SortableBookingIdGenerator(0);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(generator.nextLongId());
+                    }
+                });
+            }
+        }
+
+        assertThat(ids).hasSize(80_000);
+    }
+
+    @DisplayName("throws exception for an invalid encoded id or node id")
+    @Test
+    void invalidInput() {
+        assertThatThrownBy(() -> SortableBookingIdGenerator.decode("not-an-id"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Ogiltigt boknings-id");
+        assertThatThrownBy(() -> new SortableBookingIdGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Nod-id måste vara mellan 0 och 1023");
+    }
+
+    @DisplayName("BookingSystem falls back to UUIDs when no node id is configured")
+    @Test
+    void defaultsToUuidWithoutNodeId() throws NotificationException {
+        assertThat(System.getProperty(BookingSystem.NODE_ID_PROPERTY)).isNull();
+        Room room = new Room("room", "Rum");
+        RoomRepository repository = mock(RoomRepository.class);
+        when(repository.findById("room")).thenReturn(Optional.of(room));
+        BookingSystem bookingSystem = new BookingSystem(() -> LocalDateTime.of(2026, 1, 19, 10, 0),
+                repository, mock(NotificationService.class));
+
+        bookingSystem.bookRoom("room", LocalDateTime.of(2026, 1, 19, 13, 0),
+                LocalDateTime.of(2026, 1, 19, 14, 0));
+
+        String id = room.snapshot().getBookings().getFirst().getId();
+        assertThat(UUID.fromString(id).toString()).isEqualTo(id);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TimingWheel Tests")
+class TimingWheelTest {
+
+    @DisplayName("expires timers in their tick and not before")
+    @Test
+    void expiresOnTime() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 45);
+
+        assertThat(wheel.advanceTo(19)).isEmpty();
+        assertThat(wheel.advanceTo(29)).containsExactly("a");
+        assertThat(wheel.advanceTo(49)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @DisplayName("cascades timers from coarser levels down to their tick")
+    @Test
+    void cascadesFromOverflowLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 4, 0);
+        Random random = new Random(7);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long deadline = 10 + random.nextInt(50_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        for (long now = 0; now <= 50_010; now += 1 + random.nextInt(300)) {
+            for (long expired : wheel.advanceTo(now)) {
+                // Aldrig före sin tid
+                assertThat(expired).isLessThanOrEqualTo(now);
+                assertThat(expired).isGreaterThanOrEqualTo(now - now % 10 - 300);
+                deadlines.remove(expired);
+            }
+        }
+        wheel.advanceTo(60_000).forEach(deadlines::remove);
+
+        assertThat(deadlines).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @DisplayName("a cancelled timer never expires")
+    @Test
+    void cancelledTimer() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", 500);
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(wheel.advanceTo(1000)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @DisplayName("an overdue timer expires on the next advance")
+    @Test
+    void overdueTimer() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 100);
+        wheel.schedule("late", 50);
+
+        assertThat(wheel.advanceTo(105)).containsExactly("late");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @DisplayName("never expires a timer before its deadline within the current tick")
+    @Test
+    void neverEarlyWithinTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.schedule("a", 27);
+        wheel.schedule("b", 5);
+
+        assertThat(wheel.advanceTo(4)).isEmpty();
+        assertThat(wheel.advanceTo(5)).containsExactly("b");
+        assertThat(wheel.advanceTo(20)).isEmpty();
+        assertThat(wheel.advanceTo(26)).isEmpty();
+        assertThat(wheel.advanceTo(27)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @DisplayName("throws exception for a wheel without room for timers")
+    @Test
+    void invalidWheel() {
+        assertThatThrownBy(() -> new TimingWheel<String>(0, 8, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}